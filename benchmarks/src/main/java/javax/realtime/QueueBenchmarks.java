@@ -0,0 +1,84 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the queue benchmarks.  With the option {@value #GC_OPTION}, the
+ * GC profiler is attached, so that the allocation rate per operation is
+ * reported next to the throughput and latency percentiles; it is off by
+ * default, since it adds its own overhead to every measurement.  All
+ * other arguments are passed on to JMH, e.g., a regular expression
+ * selecting the benchmarks to run.
+ */
+public final class QueueBenchmarks
+{
+  /** The option that attaches the GC profiler. */
+  public static final String GC_OPTION = "--gc-profiler";
+
+  private QueueBenchmarks() {}
+
+  /**
+   * Runs the selected benchmarks.
+   *
+   * @param args the JMH command line.
+   *
+   * @throws RunnerException when a benchmark fails.
+   * @throws CommandLineOptionException when {@code args} is malformed.
+   * @throws IOException when the help cannot be printed.
+   */
+  public static void main(String[] args)
+    throws RunnerException, CommandLineOptionException, IOException
+  {
+    boolean profile = false;
+    int count = 0;
+    for (String arg : args)
+      {
+        if (GC_OPTION.equals(arg))
+          {
+            profile = true;
+          }
+        else
+          {
+            args[count++] = arg;
+          }
+      }
+    CommandLineOptions options =
+      new CommandLineOptions(Arrays.copyOf(args, count));
+    if (options.shouldHelp())
+      {
+        options.showHelp();
+        System.out.println();
+        System.out.println(GC_OPTION + ": attach the GC profiler.");
+      }
+    else
+      {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (profile)
+          {
+            builder.addProfiler(GCProfiler.class);
+          }
+        Runner runner = new Runner(builder.build());
+        if (options.shouldList())
+          {
+            runner.list();
+          }
+        else
+          {
+            runner.run();
+          }
+      }
+  }
+}
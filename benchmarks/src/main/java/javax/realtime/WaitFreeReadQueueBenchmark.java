@@ -0,0 +1,96 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Measures {@link WaitFreeReadQueue} with one and with several writers
+ * feeding a single reader, both with synchronized writers and in
+ * multiple writer mode.  Writers block on a full queue; they stop
+ * writing once the measurement ends, and the reader keeps draining
+ * until every thread has left its last invocation, so no writer stays
+ * blocked.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class WaitFreeReadQueueBenchmark
+{
+  @Param({ "1024" })
+  public int capacity;
+
+  @Param({ "false", "true" })
+  public boolean multiWriter;
+
+  private final Object element_ = new Object();
+  private WaitFreeReadQueue<Object> queue_;
+
+  @Setup(Level.Iteration)
+  public void setup()
+  {
+    queue_ = new WaitFreeReadQueue<Object>(null, null, capacity, null,
+                                           false, multiWriter);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public void oneToOneWrite(Control control) throws InterruptedException
+  {
+    write(control);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public Object oneToOneRead()
+  {
+    return queue_.read();
+  }
+
+  @Benchmark
+  @Group("manyToOne")
+  @GroupThreads(4)
+  public void manyToOneWrite(Control control) throws InterruptedException
+  {
+    write(control);
+  }
+
+  @Benchmark
+  @Group("manyToOne")
+  @GroupThreads(1)
+  public Object manyToOneRead()
+  {
+    return queue_.read();
+  }
+
+  private void write(Control control) throws InterruptedException
+  {
+    if (!control.stopMeasurement)
+      {
+        queue_.write(element_);
+      }
+  }
+}
@@ -0,0 +1,107 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link WaitFreeWriteLongQueue} with one writer and one
+ * reader taking single elements or whole batches, and with a writer
+ * forcing elements into a queue that a slow reader keeps full.  As for
+ * {@link WaitFreeWriteQueueBenchmark}, writers measure single attempts
+ * and readers never block.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class WaitFreeWriteLongQueueBenchmark
+{
+  @Param({ "1024" })
+  public int capacity;
+
+  /** CPU spent by the slow reader per element, in JMH tokens. */
+  @Param({ "64" })
+  public long readerWork;
+
+  private WaitFreeWriteLongQueue queue_;
+  private long[] batch_;
+  private long next_;
+
+  @Setup(Level.Iteration)
+  public void setup()
+  {
+    queue_ = new WaitFreeWriteLongQueue(capacity);
+    batch_ = new long[capacity];
+    next_ = 0L;
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public boolean oneToOneWrite()
+  {
+    return queue_.write(next_++);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public long oneToOneRead() throws InterruptedException
+  {
+    return queue_.isEmpty() ? -1L : queue_.read();
+  }
+
+  @Benchmark
+  @Group("oneToOneBatch")
+  @GroupThreads(1)
+  public boolean oneToOneBatchWrite()
+  {
+    return queue_.write(next_++);
+  }
+
+  @Benchmark
+  @Group("oneToOneBatch")
+  @GroupThreads(1)
+  public int oneToOneBatchDrain()
+  {
+    return queue_.drainTo(batch_, 0, batch_.length);
+  }
+
+  @Benchmark
+  @Group("forceBurst")
+  @GroupThreads(1)
+  public boolean forceBurstForce()
+  {
+    return queue_.force(next_++);
+  }
+
+  @Benchmark
+  @Group("forceBurst")
+  @GroupThreads(1)
+  public long forceBurstRead() throws InterruptedException
+  {
+    Blackhole.consumeCPU(readerWork);
+    return queue_.isEmpty() ? -1L : queue_.read();
+  }
+}
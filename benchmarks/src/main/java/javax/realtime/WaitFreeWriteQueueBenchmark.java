@@ -0,0 +1,89 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link WaitFreeWriteQueue} with one writer and one reader,
+ * and with a writer forcing elements into a queue that a slow reader
+ * keeps full.  The writer methods measure single, nonblocking attempts,
+ * so the sampled latencies are those of the write itself and not of
+ * waiting for room.  The reader only calls {@code read()} on a
+ * nonempty queue, so it never blocks when the writer stops.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class WaitFreeWriteQueueBenchmark
+{
+  @Param({ "1024" })
+  public int capacity;
+
+  /** CPU spent by the slow reader per element, in JMH tokens. */
+  @Param({ "64" })
+  public long readerWork;
+
+  private final Object element_ = new Object();
+  private WaitFreeWriteQueue<Object> queue_;
+
+  @Setup(Level.Iteration)
+  public void setup()
+  {
+    queue_ = new WaitFreeWriteQueue<Object>(capacity);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public boolean oneToOneWrite()
+  {
+    return queue_.write(element_);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public Object oneToOneRead() throws InterruptedException
+  {
+    return queue_.isEmpty() ? null : queue_.read();
+  }
+
+  @Benchmark
+  @Group("forceBurst")
+  @GroupThreads(1)
+  public boolean forceBurstForce()
+  {
+    return queue_.force(element_);
+  }
+
+  @Benchmark
+  @Group("forceBurst")
+  @GroupThreads(1)
+  public Object forceBurstRead() throws InterruptedException
+  {
+    Blackhole.consumeCPU(readerWork);
+    return queue_.isEmpty() ? null : queue_.read();
+  }
+}
@@ -405,7 +405,7 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime add(long millis, int nanos)
     throws ArithmeticException
   {
-    return null;
+    return add(millis, nanos, null);
   }
 
 
@@ -432,7 +432,9 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime add(long millis, int nanos, AbsoluteTime dest)
     throws ArithmeticException
   {
-    return dest;
+    AbsoluteTime result = dest == null ? new AbsoluteTime(this) : dest;
+    addTo(millis, nanos, result);
+    return result;
   }
 
 
@@ -457,7 +459,7 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime add(RelativeTime time)
     throws ArithmeticException, StaticIllegalArgumentException
   {
-    return null;
+    return add(time, null);
   }
 
 
@@ -488,7 +490,10 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime add(RelativeTime time, AbsoluteTime dest)
     throws ArithmeticException, StaticIllegalArgumentException
   {
-    return dest;
+    checkCompatible(time);
+    AbsoluteTime result = dest == null ? new AbsoluteTime(this) : dest;
+    addTo(time, result);
+    return result;
   }
 
 
@@ -556,7 +561,7 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public RelativeTime subtract(AbsoluteTime time)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return null;
+    return subtract(time, (RelativeTime)null);
   }
 
 
@@ -587,7 +592,11 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public RelativeTime subtract(AbsoluteTime time, RelativeTime dest)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return dest;
+    checkCompatible(time);
+    RelativeTime result =
+      dest == null ? new RelativeTime(getChronograph()) : dest;
+    subtractTo(time, result);
+    return result;
   }
 
 
@@ -613,7 +622,7 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime subtract(RelativeTime time)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return null;
+    return subtract(time, (AbsoluteTime)null);
   }
 
 
@@ -644,7 +653,10 @@ public class AbsoluteTime extends HighResolutionTime<AbsoluteTime>
   public AbsoluteTime subtract(RelativeTime time, AbsoluteTime dest)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return dest;
+    checkCompatible(time);
+    AbsoluteTime result = dest == null ? new AbsoluteTime(this) : dest;
+    subtractTo(time, result);
+    return result;
   }
 
 
@@ -29,6 +29,8 @@ public abstract
   class ActiveEventDispatcher<D extends ActiveEventDispatcher<D, T>,
                               T extends Releasable<T, D>>
 {
+  private final RealtimeThread thread_;
+
   /**
    * Creates a new dispatcher. The thread is provided by the caller
    * and is specific to the type of dispatcher.  The scheduling of the
@@ -41,6 +43,11 @@ public abstract
   protected ActiveEventDispatcher(RealtimeThread thread)
     throws StaticIllegalStateException
   {
+    if (thread == null)
+      {
+        throw StaticIllegalArgumentException.get().init("thread is null");
+      }
+    thread_ = thread;
   }
 
   /**
@@ -205,7 +212,7 @@ public abstract
    */
   protected RealtimeThread getThread()
   {
-    return null;
+    return thread_;
   }
 
   /**
@@ -348,7 +348,10 @@ public class AperiodicParameters extends ReleaseParameters<AperiodicParameters>
    *  {@link ReleaseParameters#getInitialQueueLength()}.
    */
   @Deprecated
-  public int getInitialArrivalTimeQueueLength() { return 0; }
+  public int getInitialArrivalTimeQueueLength()
+  {
+    return getInitialQueueLength();
+  }
 
 
   /**
@@ -369,7 +372,10 @@ public class AperiodicParameters extends ReleaseParameters<AperiodicParameters>
    *  {@link ReleaseParameters#setInitialQueueLength(int initial)}.
    */
   @Deprecated
-  public void setInitialArrivalTimeQueueLength(int initial) {}
+  public void setInitialArrivalTimeQueueLength(int initial)
+  {
+    setInitialQueueLength(initial);
+  }
 
   /**
    * Gets the behavior of the arrival time queue in the event of
@@ -383,7 +389,16 @@ public class AperiodicParameters extends ReleaseParameters<AperiodicParameters>
    *             {@link ReleaseParameters#getEventQueueOverflowPolicy}
    */
   @Deprecated
-  public String getArrivalTimeQueueOverflowBehavior() { return new String(); }
+  public String getArrivalTimeQueueOverflowBehavior()
+  {
+    switch (getEventQueueOverflowPolicy())
+      {
+      case EXCEPT:  return arrivalTimeQueueOverflowExcept;
+      case IGNORE:  return arrivalTimeQueueOverflowIgnore;
+      case REPLACE: return arrivalTimeQueueOverflowReplace;
+      default:      return arrivalTimeQueueOverflowSave;
+      }
+  }
 
 
   /**
@@ -406,7 +421,32 @@ public class AperiodicParameters extends ReleaseParameters<AperiodicParameters>
    * @deprecated Since RTSJ 2.0
    */
   @Deprecated
-  public void setArrivalTimeQueueOverflowBehavior(String behavior) {}
+  public void setArrivalTimeQueueOverflowBehavior(String behavior)
+  {
+    QueueOverflowPolicy policy;
+    if (behavior == arrivalTimeQueueOverflowExcept)
+      {
+        policy = QueueOverflowPolicy.EXCEPT;
+      }
+    else if (behavior == arrivalTimeQueueOverflowIgnore)
+      {
+        policy = QueueOverflowPolicy.IGNORE;
+      }
+    else if (behavior == arrivalTimeQueueOverflowReplace)
+      {
+        policy = QueueOverflowPolicy.REPLACE;
+      }
+    else if (behavior == arrivalTimeQueueOverflowSave)
+      {
+        policy = QueueOverflowPolicy.SAVE;
+      }
+    else
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Unknown overflow behavior " + behavior);
+      }
+    setEventQueueOverflowPolicy(policy);
+  }
 
 
   /**
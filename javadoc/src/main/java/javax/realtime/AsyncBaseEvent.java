@@ -18,6 +18,19 @@ package javax.realtime;
  */
 public abstract class AsyncBaseEvent
 {
+  private static final AsyncBaseEventHandler[] _NO_HANDLERS_ =
+    new AsyncBaseEventHandler[0];
+
+  /*
+   * The handlers are kept in an array that is never modified once it is
+   * published.  Adding or removing a handler publishes a copy under the
+   * lock on this event, so fire() just reads the field and iterates a
+   * consistent snapshot without locking or allocating.
+   */
+  private volatile AsyncBaseEventHandler[] handlers_ = _NO_HANDLERS_;
+
+  private volatile boolean enabled_ = true;
+
   /**
    * Creates a new {@code AsyncBaseEvent} object.
    */
@@ -36,7 +49,7 @@ public abstract class AsyncBaseEvent
    */
   public boolean isRunning()
   {
-    return false;
+    return enabled_;
   }
 
 
@@ -55,7 +68,7 @@ public abstract class AsyncBaseEvent
    */
   public boolean handledBy(AsyncBaseEventHandler handler)
   {
-    return false;
+    return handler != null && indexOf(handlers_, handler) >= 0;
   }
 
 
@@ -69,6 +82,7 @@ public abstract class AsyncBaseEvent
    */
   public void enable()
   {
+    enabled_ = true;
   }
 
 
@@ -82,6 +96,7 @@ public abstract class AsyncBaseEvent
    */
   public void disable()
   {
+    enabled_ = false;
   }
 
 
@@ -122,6 +137,19 @@ public abstract class AsyncBaseEvent
    */
   public void addHandler(AsyncBaseEventHandler handler)
   {
+    checkHandler(handler);
+    synchronized (this)
+      {
+        AsyncBaseEventHandler[] handlers = handlers_;
+        if (indexOf(handlers, handler) < 0)
+          {
+            AsyncBaseEventHandler[] added =
+              new AsyncBaseEventHandler[handlers.length + 1];
+            System.arraycopy(handlers, 0, added, 0, handlers.length);
+            added[handlers.length] = handler;
+            handlers_ = added;
+          }
+      }
   }
 
 
@@ -149,6 +177,16 @@ public abstract class AsyncBaseEvent
    */
   public void setHandler(AsyncBaseEventHandler handler)
   {
+    AsyncBaseEventHandler[] handlers = _NO_HANDLERS_;
+    if (handler != null)
+      {
+        checkHandler(handler);
+        handlers = new AsyncBaseEventHandler[] { handler };
+      }
+    synchronized (this)
+      {
+        handlers_ = handlers;
+      }
   }
 
 
@@ -175,6 +213,123 @@ public abstract class AsyncBaseEvent
    */
   public void removeHandler(AsyncBaseEventHandler handler)
   {
+    if (handler == null)
+      {
+        return;
+      }
+    synchronized (this)
+      {
+        AsyncBaseEventHandler[] handlers = handlers_;
+        int index = indexOf(handlers, handler);
+        if (index >= 0)
+          {
+            AsyncBaseEventHandler[] removed = _NO_HANDLERS_;
+            if (handlers.length > 1)
+              {
+                removed = new AsyncBaseEventHandler[handlers.length - 1];
+                System.arraycopy(handlers, 0, removed, 0, index);
+                System.arraycopy(handlers, index + 1, removed, index,
+                                 removed.length - index);
+              }
+            handlers_ = removed;
+          }
+      }
+  }
+
+
+  /**
+   * Checks that {@code handler} may be associated with this event.
+   */
+  private void checkHandler(AsyncBaseEventHandler handler)
+  {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    if (handler.getReleaseParameters() instanceof PeriodicParameters &&
+        !(this instanceof PeriodicTimer))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("only a PeriodicTimer may have periodic handlers");
+      }
+  }
+
+
+  private static int indexOf(AsyncBaseEventHandler[] handlers,
+                             AsyncBaseEventHandler handler)
+  {
+    for (int i = 0; i < handlers.length; i++)
+      {
+        if (handlers[i] == handler)
+          {
+            return i;
+          }
+      }
+    return -1;
+  }
+
+
+  /**
+   * Gets a snapshot of the handlers of this event for releasing them.
+   * The array is shared and must not be modified.
+   *
+   * @return the handlers at the time of the call.
+   */
+  final AsyncBaseEventHandler[] getHandlers()
+  {
+    return handlers_;
+  }
+
+
+  /**
+   * Chooses the exception a fire method propagates when releasing more
+   * than one handler failed.  An {@link MITViolationException} takes
+   * precedence over an {@link EventQueueOverflowException}, which takes
+   * precedence over all others; otherwise the first one is kept.
+   *
+   * @param first the exception chosen so far, or {@code null}.
+   *
+   * @param next the exception of the latest failed release.
+   *
+   * @return the exception to propagate.
+   */
+  static RuntimeException precedence(RuntimeException first,
+                                     RuntimeException next)
+  {
+    return first == null || rank(next) > rank(first) ? next : first;
+  }
+
+
+  private static int rank(RuntimeException e)
+  {
+    if (e instanceof MITViolationException)
+      {
+        return 2;
+      }
+    return e instanceof EventQueueOverflowException ? 1 : 0;
+  }
+
+
+  /**
+   * Determines the highest priority among the handlers of this event,
+   * by which events that are fired together release their handlers.
+   *
+   * @return the highest priority or {@code Integer.MIN_VALUE} when
+   *         no handler has a priority.
+   */
+  int getReleasePriority()
+  {
+    int priority = Integer.MIN_VALUE;
+    for (AsyncBaseEventHandler handler : handlers_)
+      {
+        SchedulingParameters scheduling = handler.getSchedulingParameters();
+        if (scheduling instanceof PriorityParameters)
+          {
+            priority = Math.max(priority,
+                                ((PriorityParameters)scheduling).getPriority());
+          }
+      }
+    return priority;
   }
 
 
@@ -188,7 +343,7 @@ public abstract class AsyncBaseEvent
    */
   public boolean hasHandlers()
   {
-    return false;
+    return handlers_.length > 0;
   }
 
 
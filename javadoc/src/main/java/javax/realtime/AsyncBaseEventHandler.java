@@ -4,6 +4,8 @@
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 /**
  * This is the base class for all asynchronous event handlers, where
  * asynchronous is in regards to running code, not external time.  This class
@@ -17,8 +19,32 @@ package javax.realtime;
 public abstract class AsyncBaseEventHandler
   implements Schedulable
 {
+  private static final
+    AtomicIntegerFieldUpdater<AsyncBaseEventHandler> _FIRE_COUNT_ =
+    AtomicIntegerFieldUpdater.newUpdater(AsyncBaseEventHandler.class,
+                                         "fire_count_");
+
+  /**
+   * The runner of the releases, or {@code null} until the default runner
+   * is taken with the first release.
+   */
   private ReleaseRunner runner_;
 
+  /** Set once this handler is attached to {@code runner_}. */
+  private volatile boolean attached_;
+
+  /** The proxy by which {@code runner_} runs the releases. */
+  private final ReleaseRunner.Proxy proxy_ = new HandlerProxy();
+
+  /** The number of releases not yet handled, only updated atomically. */
+  private volatile int fire_count_;
+
+  /** The statistics, or {@code null} when they are not collected. */
+  private volatile HandlerStatistics statistics_;
+
+  /** The monitor of the release parameters, {@code null} without them. */
+  private volatile ReleaseMonitor monitor_;
+
   /**
    * Gets the last release time of this handler.
    *
@@ -98,6 +124,8 @@ public abstract class AsyncBaseEventHandler
                         Object logic)
     throws StaticIllegalArgumentException, IllegalAssignmentError
   {
+    runner_ = runner;
+    monitor_ = monitor(release);
   }
 
 
@@ -110,6 +138,13 @@ public abstract class AsyncBaseEventHandler
                         Object logic)
     throws StaticIllegalArgumentException, IllegalAssignmentError
   {
+    runner_ = runner;
+    monitor_ = monitor(release);
+  }
+
+  private ReleaseMonitor monitor(ReleaseParameters<?> release)
+  {
+    return release == null ? null : new ReleaseMonitor(this, release);
   }
 
   /**
@@ -123,7 +158,7 @@ public abstract class AsyncBaseEventHandler
    *
    * @return the value held by {@code fireCount}.
    */
-  protected int getPendingFireCount() { return 0; }
+  protected int getPendingFireCount() { return fire_count_; }
 
   /**
    * This is an accessor method for {@code fireCount}.
@@ -146,10 +181,23 @@ public abstract class AsyncBaseEventHandler
    * the scheduling of this AEH depends on the semantics of the scheduler
    * controlling this AEH.
    *
+   * <p> For a handler with a payload, the payloads of the cleared
+   * releases are discarded.
+   *
    * @return the value held by {@code fireCount} prior to setting
    * the value to zero.
    */
-  protected int getAndClearPendingFireCount() { return 0; }
+  protected int getAndClearPendingFireCount()
+  {
+    int count = _FIRE_COUNT_.getAndSet(this, 0);
+    EventQueue payloads = payloads();
+    if (payloads != null)
+      {
+        payloads.skip(count);
+      }
+    discarded(count);
+    return count;
+  }
 
   /**
    * This is an accessor method for {@code fireCount}.  This method
@@ -178,10 +226,285 @@ public abstract class AsyncBaseEventHandler
    * of this AEH depends on the semantics of the scheduler controlling
    * this AEH.
    *
+   * <p> For a handler with a payload, the payload of the release is
+   * discarded.
+   *
    * @return the value held by {@code fireCount} prior to
    * decrementing it by one.
    */
-  protected int getAndDecrementPendingFireCount() { return 0; }
+  protected int getAndDecrementPendingFireCount()
+  {
+    int count = decrementFireCount();
+    if (count > 0)
+      {
+        EventQueue payloads = payloads();
+        if (payloads != null)
+          {
+            payloads.skip(1);
+          }
+        discarded(1);
+      }
+    return count;
+  }
+
+  /**
+   * Gets the queue of the payloads of the pending releases.
+   *
+   * @return the event queue, or {@code null} for a handler without a
+   *         payload.
+   */
+  EventQueue payloads()
+  {
+    return null;
+  }
+
+  /**
+   * Counts a release whose payload was offered to the event queue of
+   * this handler, according to the outcome of the offer.
+   *
+   * @param outcome the outcome returned by the event queue.
+   *
+   * @throws ArrivalTimeQueueOverflowException when the queue was full
+   *         and its policy is {@link QueueOverflowPolicy#EXCEPT}.
+   */
+  final void queued(int outcome) throws ArrivalTimeQueueOverflowException
+  {
+    switch (outcome)
+      {
+      case EventQueue.ADDED:
+        incrementFireCount();
+        break;
+      case EventQueue.MERGED:
+        break;
+      case EventQueue.FULL:
+        countOverflow();
+        throw ArrivalTimeQueueOverflowException.get().
+          init(EventQueue.FULL_MESSAGE);
+      default:
+        countOverflow();
+        break;
+      }
+  }
+
+  /**
+   * Counts a new release, unless the minimum interarrival time delays
+   * it, in which case it is counted by {@link #releaseDelayed()} later.
+   * For a handler without a payload, the overflow policy of its arrival
+   * time queue may also drop or reject the release.  A counted release
+   * is handed to the release runner of this handler.
+   *
+   * @return the fire count before the increment.
+   *
+   * @throws ArrivalTimeQueueOverflowException when the arrival time
+   *         queue is full and its policy is
+   *         {@link QueueOverflowPolicy#EXCEPT}.
+   */
+  final int incrementFireCount() throws ArrivalTimeQueueOverflowException
+  {
+    ReleaseMonitor monitor = monitor_;
+    int outcome = monitor == null ?
+      ReleaseMonitor.COUNTED : monitor.released(payloads() == null);
+    switch (outcome)
+      {
+      case ReleaseMonitor.DROPPED:
+        countOverflow();
+        return fire_count_;
+      case ReleaseMonitor.FULL:
+        countOverflow();
+        throw ArrivalTimeQueueOverflowException.get().
+          init(ReleaseMonitor.FULL_MESSAGE);
+      default:
+        break;
+      }
+    HandlerStatistics statistics = statistics_;
+    if (statistics != null)
+      {
+        statistics.fired(fire_count_ + 1);
+      }
+    if (outcome == ReleaseMonitor.DELAYED)
+      {
+        return fire_count_;
+      }
+    int count = _FIRE_COUNT_.getAndIncrement(this);
+    wake();
+    return count;
+  }
+
+  /**
+   * Counts a release that was delayed to enforce the minimum
+   * interarrival time, once its release time has come.  Its arrival was
+   * recorded when it was fired.
+   */
+  final void releaseDelayed()
+  {
+    _FIRE_COUNT_.getAndIncrement(this);
+    wake();
+  }
+
+  /**
+   * Called when a release is counted, to have it run.  The release is
+   * handed to the release runner of this handler, which runs all
+   * releases counted by then; a handler with a thread of its own wakes
+   * that thread instead.
+   */
+  void wake()
+  {
+    runner().release(proxy_);
+  }
+
+  /**
+   * Gets the release runner of this handler and attaches the handler to
+   * it on the first call.  Without a runner given on construction, the
+   * default runner of the default configuration parameters is used.
+   *
+   * @return the runner, or {@code null} for a handler with a thread of
+   *         its own.
+   */
+  ReleaseRunner runner()
+  {
+    if (!attached_)
+      {
+        synchronized (this)
+          {
+            if (!attached_)
+              {
+                if (runner_ == null)
+                  {
+                    runner_ = ConfigurationParameters.getDefault().
+                      getDefaultRunner();
+                  }
+                runner_.attach(proxy_);
+                attached_ = true;
+              }
+          }
+      }
+    return runner_;
+  }
+
+  /**
+   * Checks an arrival against the minimum interarrival time of sporadic
+   * release parameters before it is queued.
+   *
+   * @return {@code null} when the arrival is to be counted as a release,
+   *         otherwise {@link MinimumInterarrivalPolicy#IGNORE} when it is
+   *         to be dropped or {@link MinimumInterarrivalPolicy#REPLACE}
+   *         when its payload is to replace that of the newest pending
+   *         release.
+   *
+   * @throws MITViolationException when the arrival violates the minimum
+   *         interarrival time under the {@code EXCEPT} policy.
+   */
+  final MinimumInterarrivalPolicy arrive() throws MITViolationException
+  {
+    ReleaseMonitor monitor = monitor_;
+    return monitor == null ? null : monitor.arrive(fire_count_ > 0);
+  }
+
+  /**
+   * Records a fire that overflowed the event queue of this handler.
+   */
+  final void countOverflow()
+  {
+    HandlerStatistics statistics = statistics_;
+    if (statistics != null)
+      {
+        statistics.overflowed();
+      }
+  }
+
+  /**
+   * Starts collecting timing statistics for this handler.  Collection
+   * is off by default, since it costs two time stamps per release.
+   *
+   * @return the statistics of this handler, which are updated from now
+   *         on.  The same object is returned on each call.
+   *
+   * @since RTSJ 2.1
+   */
+  public synchronized HandlerStatistics enableStatistics()
+  {
+    if (statistics_ == null)
+      {
+        statistics_ = new HandlerStatistics();
+      }
+    return statistics_;
+  }
+
+  /**
+   * Gets the timing statistics of this handler.
+   *
+   * @return the statistics, or {@code null} when
+   *         {@link #enableStatistics()} has not been called.
+   *
+   * @since RTSJ 2.1
+   */
+  public HandlerStatistics getStatistics()
+  {
+    return statistics_;
+  }
+
+  /**
+   * Decrements the fire count by up to {@code max}, but not below zero.
+   *
+   * @return the amount by which the fire count was decremented.
+   */
+  final int claimFireCount(int max)
+  {
+    while (true)
+      {
+        int count = fire_count_;
+        int claimed = Math.min(count, max);
+        if (claimed <= 0)
+          {
+            return 0;
+          }
+        if (_FIRE_COUNT_.compareAndSet(this, count, count - claimed))
+          {
+            discarded(claimed);
+            return claimed;
+          }
+      }
+  }
+
+  /**
+   * Forgets the fire and release times of releases that are handled
+   * without being started by {@link #run()}.
+   *
+   * @param count the number of releases.
+   */
+  private void discarded(int count)
+  {
+    if (count > 0)
+      {
+        HandlerStatistics statistics = statistics_;
+        if (statistics != null)
+          {
+            statistics.discarded(count);
+          }
+        ReleaseMonitor monitor = monitor_;
+        if (monitor != null)
+          {
+            monitor.discarded(count);
+          }
+      }
+  }
+
+  /**
+   * Decrements the fire count when it is greater than zero.
+   *
+   * @return the fire count before the decrement.
+   */
+  final int decrementFireCount()
+  {
+    while (true)
+      {
+        int count = fire_count_;
+        if (count <= 0 || _FIRE_COUNT_.compareAndSet(this, count, count - 1))
+          {
+            return count;
+          }
+      }
+  }
 
   /**
    * This is an accessor method for the initial instance of {@link
@@ -202,7 +525,8 @@ public abstract class AsyncBaseEventHandler
   @Override
   public ReleaseParameters<?> getReleaseParameters()
   {
-    return null;
+    ReleaseMonitor monitor = monitor_;
+    return monitor == null ? null : monitor.getReleaseParameters();
   }
 
   @Override
@@ -225,13 +549,14 @@ public abstract class AsyncBaseEventHandler
   */
 
   /**
-   * Obtain the configuration parameters.
+   * Obtain the release runner, which is the default runner when none
+   * was given on construction.
    *
-   * @return the current configuration parameters.
+   * @return the runner that runs the releases of this handler.
    *
    * @since RTSJ 2.0
    */
-  public ReleaseRunner getReleaseRunner() { return null; }
+  public ReleaseRunner getReleaseRunner() { return runner(); }
 
   /**
    * {@inheritDoc}
@@ -257,6 +582,7 @@ public abstract class AsyncBaseEventHandler
   @ReturnsThis
   public Schedulable setReleaseParameters(ReleaseParameters<?> release)
   {
+    monitor_ = monitor(release);
     return this;
   }
 
@@ -343,7 +669,11 @@ public abstract class AsyncBaseEventHandler
    *
    * @since RTSJ 2.0 Inherited by AyncEventHandler
    */
-  public int getQueueLength() { return 0; }
+  public int getQueueLength()
+  {
+    EventQueue payloads = payloads();
+    return payloads == null ? 0 : payloads.size();
+  }
 
   /*
    * Determines the minimum CPU consumption of all completed releases.
@@ -431,9 +761,95 @@ public abstract class AsyncBaseEventHandler
    * event handlers, including execution of the {@code logic} argument
    * passed to this object's constructor.  Applications should override
    * the  {@code handleAsyncEvent()} method instead of overwriting this method.
+   * <p>
+   * The releases are run on the same path on which the release runner
+   * runs them.  When a release completes, it is checked against the cost
+   * and deadline of the release parameters, and their cost overrun
+   * handler or deadline miss handler is released when it exceeded
+   * them.  A runtime exception
+   * thrown by a release is passed to the uncaught exception handler of
+   * the current thread, and the remaining releases are still handled.
+   * An error is not caught; it ends the loop and propagates to the
+   * release runner, which leaves it to the thread.
    */
   @Override
-  public final void run() {}
+  public final void run()
+  {
+    proxy_.run();
+  }
+
+  /**
+   * Handles a single release by calling the {@code handleAsyncEvent}
+   * method of the subclass with the payload of the release, if any.
+   */
+  abstract void handle();
+
+  /**
+   * The proxy by which the release runner runs this handler.
+   */
+  private final class HandlerProxy implements ReleaseRunner.Proxy
+  {
+    @Override
+    public SchedulingParameters getSchedulingParameters()
+    {
+      return AsyncBaseEventHandler.this.getSchedulingParameters();
+    }
+
+    @Override
+    public AbsoluteTime getReleaseTime()
+    {
+      return getCurrentReleaseTime();
+    }
+
+    @Override
+    public AsyncBaseEventHandler getHandler()
+    {
+      return AsyncBaseEventHandler.this;
+    }
+
+    /**
+     * Runs the pending releases with the hooks of the statistics and
+     * the release monitor around each one.  This is the dispatch path
+     * of the release runner; the thread of a bound handler reaches it
+     * through {@link AsyncBaseEventHandler#run()}.
+     */
+    @Override
+    public void run()
+    {
+      while (decrementFireCount() > 0)
+        {
+          HandlerStatistics statistics = statistics_;
+          long start = statistics == null ? 0L : statistics.started();
+          ReleaseMonitor monitor = monitor_;
+          if (monitor != null)
+            {
+              monitor.started();
+            }
+          try
+            {
+              handle();
+            }
+          catch (RuntimeException e)
+            {
+              Thread thread = Thread.currentThread();
+              Thread.UncaughtExceptionHandler report =
+                thread.getUncaughtExceptionHandler();
+              if (report != null)
+                {
+                  report.uncaughtException(thread, e);
+                }
+            }
+          if (statistics != null)
+            {
+              statistics.completed(start);
+            }
+          if (monitor != null)
+            {
+              monitor.completed();
+            }
+        }
+    }
+  }
 
   /**
    * {@inheritDoc}
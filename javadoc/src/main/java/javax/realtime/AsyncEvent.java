@@ -61,7 +61,40 @@ public class AsyncEvent extends AsyncBaseEvent
    *         infrastructure, such as for an {@link ActiveEvent}, this
    *         exception is ignored.
    */
-  public void fire() {}
+  public void fire()
+  {
+    if (isRunning())
+      {
+        releaseHandlers();
+      }
+  }
+
+  /**
+   * Releases all handlers regardless of whether this event is running,
+   * for subclasses that decide that themselves.
+   */
+  final void releaseHandlers()
+  {
+    RuntimeException failure = null;
+    for (AsyncBaseEventHandler handler : getHandlers())
+      {
+        if (handler instanceof AsyncEventHandler)
+          {
+            try
+              {
+                ((AsyncEventHandler)handler).release();
+              }
+            catch (RuntimeException e)
+              {
+                failure = precedence(failure, e);
+              }
+          }
+      }
+    if (failure != null)
+      {
+        throw failure;
+      }
+  }
 
   /**
    * Determines whether or not the handler given as the parameter is
@@ -120,7 +153,10 @@ public class AsyncEvent extends AsyncBaseEvent
    *             {@link AsyncBaseEvent#addHandler(AsyncBaseEventHandler)}
    */
   @Deprecated
-  public void addHandler(AsyncEventHandler handler) {}
+  public void addHandler(AsyncEventHandler handler)
+  {
+    super.addHandler(handler);
+  }
 
   /**
    * Replaced by {@link AsyncBaseEvent#setHandler(AsyncBaseEventHandler)}
@@ -130,7 +166,10 @@ public class AsyncEvent extends AsyncBaseEvent
    * @deprecated since RTSJ 2.0
    */
   @Deprecated
-  public void setHandler(AsyncEventHandler handler) {}
+  public void setHandler(AsyncEventHandler handler)
+  {
+    super.setHandler(handler);
+  }
 
   /**
    * Replaced by {@link AsyncBaseEvent#removeHandler(AsyncBaseEventHandler)}
@@ -108,7 +108,8 @@ public class AsyncEventHandler extends AsyncBaseEventHandler
    * @param area The initial memory area of this handler.
    *
    * @param runner A pool of realtime threads to provide an execution context
-   *        for this handler.
+   *        for this handler.  When {@code null}, the default runner of
+   *        {@link ConfigurationParameters} is used.
    *
    * @param logic The {@code Runnable} object whose
    *        {@code run()} method will serve as the logic for the
@@ -357,9 +358,27 @@ public class AsyncEventHandler extends AsyncBaseEventHandler
 
   /**
    * Release this handler directly.
+   *
+   * @throws MITViolationException when the release violates the minimum
+   *         interarrival time of sporadic release parameters under the
+   *         {@code mitViolationExcept} policy.
+   *
+   * @throws ArrivalTimeQueueOverflowException when the arrival time
+   *         queue is full and its policy is
+   *         {@link QueueOverflowPolicy#EXCEPT}.
    */
   public void release()
   {
+    if (arrive() == null)
+      {
+        incrementFireCount();
+      }
+  }
+
+  @Override
+  void handle()
+  {
+    handleAsyncEvent();
   }
 
   /**
@@ -391,7 +410,7 @@ public class AsyncEventHandler extends AsyncBaseEventHandler
   @Deprecated
   protected int getAndIncrementPendingFireCount()
   {
-    return 0;
+    return arrive() == null ? incrementFireCount() : getPendingFireCount();
   }
 
   /**
@@ -68,5 +68,28 @@ public class AsyncLongEvent extends AsyncBaseEvent
   public void fire(long value)
     throws MITViolationException, EventQueueOverflowException
   {
+    if (!isRunning())
+      {
+        return;
+      }
+    RuntimeException failure = null;
+    for (AsyncBaseEventHandler handler : getHandlers())
+      {
+        if (handler instanceof AsyncLongEventHandler)
+          {
+            try
+              {
+                ((AsyncLongEventHandler)handler).release(value);
+              }
+            catch (RuntimeException e)
+              {
+                failure = precedence(failure, e);
+              }
+          }
+      }
+    if (failure != null)
+      {
+        throw failure;
+      }
   }
 }
@@ -21,7 +21,7 @@ import javax.realtime.StaticIllegalArgumentException;
 public class AsyncLongEventHandler
   extends AsyncBaseEventHandler
 {
-  private final WaitFreeWriteLongQueue pending_releases_;
+  private final LongEventQueue pending_releases_;
 
   /**
    * Creates an asynchronous event handler that receives a {@code Long}
@@ -55,7 +55,9 @@ public class AsyncLongEventHandler
    *
    * @param area The initial memory area of this handler.
    *
-   * @param runner Logic to be executed by {@link #handleAsyncEvent}
+   * @param runner The release runner that runs the releases of this
+   *        handler.  When {@code null}, the default runner of
+   *        {@link ConfigurationParameters} is used.
    *
    * @param logic The logic to run for each fire.  When {@code logic}
    *        is {@code null}, the {@code handleAsyncEvent()}
@@ -74,8 +76,8 @@ public class AsyncLongEventHandler
     throws StaticIllegalArgumentException
   {
     super(scheduling, release, memory, area, null, runner, false, logic);
-    pending_releases_ =
-      new WaitFreeWriteLongQueue(release.getInitialQueueLength());
+    pending_releases_ = new LongEventQueue(EventQueue.length(release),
+                                           EventQueue.policy(release));
   }
 
   /**
@@ -177,7 +179,10 @@ public class AsyncLongEventHandler
    *
    * @throws StaticIllegalStateException when the fire count is zero.
    */
-  public long peekPending() throws StaticIllegalStateException { return 0l; }
+  public long peekPending() throws StaticIllegalStateException
+  {
+    return pending_releases_.peek();
+  }
 
   /**
    * Release this handler directly.
@@ -186,5 +191,23 @@ public class AsyncLongEventHandler
    */
   public void release(long payload)
   {
+    MinimumInterarrivalPolicy violation = arrive();
+    if (violation != MinimumInterarrivalPolicy.IGNORE)
+      {
+        queued(pending_releases_.
+               add(payload, violation == MinimumInterarrivalPolicy.REPLACE));
+      }
+  }
+
+  @Override
+  EventQueue payloads()
+  {
+    return pending_releases_;
+  }
+
+  @Override
+  void handle()
+  {
+    handleAsyncEvent(pending_releases_.poll());
   }
 }
@@ -78,5 +78,31 @@ public class AsyncObjectEvent<P>
            EventQueueOverflowException,
            IllegalAssignmentError
   {
+    if (!isRunning())
+      {
+        return;
+      }
+    RuntimeException failure = null;
+    for (AsyncBaseEventHandler handler : getHandlers())
+      {
+        if (handler instanceof AsyncObjectEventHandler)
+          {
+            try
+              {
+                @SuppressWarnings("unchecked")
+                AsyncObjectEventHandler<P> target =
+                  (AsyncObjectEventHandler<P>)handler;
+                target.release(value);
+              }
+            catch (RuntimeException e)
+              {
+                failure = precedence(failure, e);
+              }
+          }
+      }
+    if (failure != null)
+      {
+        throw failure;
+      }
   }
 }
@@ -22,7 +22,7 @@ import java.util.function.Consumer;
 public class AsyncObjectEventHandler<P>
   extends AsyncBaseEventHandler
 {
-  private final WaitFreeWriteQueue<P> pending_releases_;
+  private final ObjectEventQueue<P> pending_releases_;
 
   /**
    * Creates an asynchronous event handler that receives a {@code P}
@@ -56,7 +56,9 @@ public class AsyncObjectEventHandler<P>
    *
    * @param area The initial memory area of this handler.
    *
-   * @param runner Logic to be executed by {@link #handleAsyncEvent}
+   * @param runner The release runner that runs the releases of this
+   *        handler.  When {@code null}, the default runner of
+   *        {@link ConfigurationParameters} is used.
    *
    * @param logic The logic to run for each fire.  When {@code logic}
    *        is {@code null}, the {@code handleAsyncEvent}
@@ -76,7 +78,8 @@ public class AsyncObjectEventHandler<P>
   {
     super(scheduling, release, memory, area, config, runner, logic);
     pending_releases_ =
-      new WaitFreeWriteQueue<P>(release.getInitialQueueLength());
+      new ObjectEventQueue<P>(EventQueue.length(release),
+                              EventQueue.policy(release), area);
   }
 
   /**
@@ -182,7 +185,42 @@ public class AsyncObjectEventHandler<P>
    */
   public P peekPending() throws StaticIllegalStateException
   {
-    return null;
+    return pending_releases_.peek();
+  }
+
+  /**
+   * Takes up to {@code length} pending payloads at once, so that a
+   * single release can handle a whole burst, typically by calling this
+   * method from {@link #handleAsyncEvent(Object)}.  Each payload taken
+   * counts as a handled release, i.e., the fire count is decremented by
+   * the number of payloads taken.
+   *
+   * @param dest the array to receive the payloads, oldest first.
+   *
+   * @param offset the index in {@code dest} of the first payload.
+   *
+   * @param length the maximum number of payloads to take.
+   *
+   * @return the number of payloads stored in {@code dest}, which is
+   *         zero when none is pending.
+   *
+   * @throws StaticIllegalArgumentException when {@code dest} is
+   *         {@code null}, {@code offset} or {@code length} is negative,
+   *         or {@code dest} has less than {@code length} elements after
+   *         {@code offset}.
+   *
+   * @since RTSJ 2.1
+   */
+  public int drainPending(P[] dest, int offset, int length)
+    throws StaticIllegalArgumentException
+  {
+    if (dest == null || offset < 0 || length < 0 ||
+        length > dest.length - offset)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid destination range");
+      }
+    return pending_releases_.drainTo(dest, offset, claimFireCount(length));
   }
 
   /**
@@ -192,5 +230,23 @@ public class AsyncObjectEventHandler<P>
    */
   public void release(P payload)
   {
+    MinimumInterarrivalPolicy violation = arrive();
+    if (violation != MinimumInterarrivalPolicy.IGNORE)
+      {
+        queued(pending_releases_.
+               add(payload, violation == MinimumInterarrivalPolicy.REPLACE));
+      }
+  }
+
+  @Override
+  EventQueue payloads()
+  {
+    return pending_releases_;
+  }
+
+  @Override
+  void handle()
+  {
+    handleAsyncEvent(pending_releases_.poll());
   }
 }
@@ -4,6 +4,8 @@
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * A bound asynchronous event handler is an instance of {@link
  * AsyncEventHandler} that is permanently bound to a dedicated realtime
@@ -12,11 +14,37 @@ package javax.realtime;
  * individual realtime thread to the handler.  Individual server
  * realtime threads can only be dedicated to a single bound event
  * handler.
+ *
+ * <p> The dedicated thread is created with the scheduling parameters of
+ * the handler, so it runs on the processors of their {@link Affinity},
+ * and it is started with the first release.  While the handler has no
+ * pending release, the thread spins on the fire count for up to its
+ * spin window before it parks, so that a release arriving shortly after
+ * the previous one is handled without the cost of unparking the thread.
+ * The window adapts to the arrivals: it is halved each time the thread
+ * parks and doubled each time a release arrives while it spins, between
+ * one sixteenth of the configured window and the full window.
  */
 public class BoundAsyncEventHandler
   extends AsyncEventHandler
   implements BoundSchedulable
 {
+  private final HandlerThread thread_;
+
+  /** The lock for starting the thread, which applications cannot hold. */
+  private final Object lock_ = new Object();
+
+  /** Set once the thread is started. */
+  private volatile boolean started_;
+
+  /** Set while the thread is parked or about to park. */
+  private volatile boolean parked_;
+
+  /** The configured spin window in nanoseconds. */
+  private volatile long spin_window_;
+
+  /** The current spin window, only used by the thread. */
+  private long spin_;
   /**
    * Creates an instance of {@code BoundAsyncEventHandler} (BAEH) with the
    * specified parameters.
@@ -99,6 +127,10 @@ public class BoundAsyncEventHandler
                                 Runnable logic)
   {
     super(scheduling, release, memory, area, null, (ReleaseRunner)null, logic);
+    thread_ = new HandlerThread(scheduling, memory, area, config, group);
+    spin_window_ = config != null ?
+      config.getSpinThreshold() : SpinWait.DEFAULT_THRESHOLD;
+    spin_ = spin_window_;
   }
 
   /**
@@ -248,5 +280,158 @@ public class BoundAsyncEventHandler
                                 boolean nonheap,
                                 Runnable logic)
   {
+    this(scheduling, release, memory, area, null, null, logic);
+  }
+
+  /**
+   * Sets the longest time the dedicated thread spins waiting for a
+   * release before it parks.  Spinning keeps the processor of the thread
+   * busy, so the window should not be much longer than the usual time
+   * between closely following releases.
+   *
+   * @param window the spin window, or {@code null} or zero to park
+   *        immediately.
+   *
+   * @return {@code this}
+   *
+   * @throws StaticIllegalArgumentException when {@code window} is
+   *         negative.
+   *
+   * @since RTSJ 2.1
+   */
+  @ReturnsThis
+  public BoundAsyncEventHandler setSpinWindow(RelativeTime window)
+    throws StaticIllegalArgumentException
+  {
+    if (window == null)
+      {
+        spin_window_ = 0L;
+      }
+    else if (window.compareToZero() < 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Negative spin window");
+      }
+    else
+      {
+        spin_window_ = Timer.saturate(window);
+      }
+    return this;
+  }
+
+  /**
+   * Gets the configured spin window.  By default, it is the spin
+   * threshold of the configuration parameters of the handler.
+   *
+   * @param dest the object to return the window in, or {@code null} for
+   *        a new object.
+   *
+   * @return the spin window.
+   *
+   * @since RTSJ 2.1
+   */
+  public RelativeTime getSpinWindow(RelativeTime dest)
+  {
+    RelativeTime result = dest == null ? new RelativeTime() : dest;
+    result.setChronograph(RealtimeClock.INSTANCE);
+    result.assignNanos(spin_window_);
+    return result;
+  }
+
+  /**
+   * A bound handler has no release runner.
+   *
+   * @return {@code null}.
+   */
+  @Override
+  ReleaseRunner runner()
+  {
+    return null;
+  }
+
+  /**
+   * Starts the dedicated thread with the first release, or unparks it
+   * when it waits for one.
+   */
+  @Override
+  void wake()
+  {
+    if (!started_)
+      {
+        start();
+      }
+    else if (parked_)
+      {
+        LockSupport.unpark(thread_);
+      }
+  }
+
+  private void start()
+  {
+    synchronized (lock_)
+      {
+        if (!started_)
+          {
+            thread_.start();
+            started_ = true;
+          }
+      }
+  }
+
+  /**
+   * Waits until the fire count is positive, spinning for up to the
+   * current spin window first.
+   */
+  private void await()
+  {
+    long window = spin_window_;
+    long limit = window >> 4;
+    if (spin_ > 0L)
+      {
+        long deadline = System.nanoTime() + Math.min(spin_, window);
+        do
+          {
+            if (getPendingFireCount() > 0)
+              {
+                spin_ = Math.min(window, Math.max(limit, spin_ << 1));
+                return;
+              }
+            SpinWait.pause();
+          }
+        while (deadline - System.nanoTime() > 0L);
+      }
+    spin_ = Math.max(limit, Math.min(window, spin_) >> 1);
+    parked_ = true;
+    while (getPendingFireCount() == 0)
+      {
+        LockSupport.park(this);
+      }
+    parked_ = false;
+  }
+
+  /**
+   * The realtime thread dedicated to this handler.
+   */
+  private final class HandlerThread extends RealtimeThread
+  {
+    HandlerThread(SchedulingParameters scheduling,
+                  MemoryParameters memory,
+                  MemoryArea area,
+                  ConfigurationParameters config,
+                  RealtimeThreadGroup group)
+    {
+      super(scheduling, null, memory, area, config, group, null);
+      setDaemon(true);
+    }
+
+    @Override
+    public void run()
+    {
+      while (true)
+        {
+          await();
+          BoundAsyncEventHandler.this.run();
+        }
+    }
   }
 }
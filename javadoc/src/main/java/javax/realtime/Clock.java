@@ -21,6 +21,9 @@ package javax.realtime;
  */
 public abstract class Clock implements Chronograph
 {
+  /** The realtime clock set by the application, if any. */
+  private static volatile Clock realtime_;
+
   /**
    * There is always at least one clock object available:
    * the system realtime clock.  This clock is monotonically increasing and
@@ -31,7 +34,8 @@ public abstract class Clock implements Chronograph
    */
   public static Clock getRealtimeClock()
   {
-    return null;
+    Clock clock = realtime_;
+    return clock != null ? clock : RealtimeClock.INSTANCE;
   }
 
   /**
@@ -42,6 +46,7 @@ public abstract class Clock implements Chronograph
    */
   public static void setRealtimeClock(Clock clock)
   {
+    realtime_ = clock;
   }
 
   /**
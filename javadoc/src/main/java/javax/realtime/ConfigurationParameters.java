@@ -108,6 +108,12 @@ public class ConfigurationParameters implements Cloneable, Serializable
   /** Maximum stack sizes (system dependent). */
   private final long[] sizes_;
 
+  /** Shortest wait in nanoseconds that spinning parks for, or -1. */
+  private final long spinThreshold_;
+
+  /** Number of threads of a release runner's pool, or -1. */
+  private final int runnerThreads_;
+
   /**
    * Creates a parameter object for initializing the state of a
    * {@link Schedulable}.  The parameters provide the data for this
@@ -172,6 +178,26 @@ public class ConfigurationParameters implements Cloneable, Serializable
     fileNameLength_ = (fileNameLength >= 0) ?
       fileNameLength : _DEFAULT_FILE_NAME_LENGTH_;
     sizes_ = sizes;
+    spinThreshold_ = -1L;
+    runnerThreads_ = -1;
+  }
+
+  /**
+   * Copies {@code base} with the given spin threshold and number of
+   * runner threads.
+   */
+  private ConfigurationParameters(ConfigurationParameters base,
+                                  long spinThreshold,
+                                  int runnerThreads)
+  {
+    messageLength_ = base.messageLength_;
+    stackTraceDepth_ = base.stackTraceDepth_;
+    classNameLength_ = base.classNameLength_;
+    methodNameLength_ = base.methodNameLength_;
+    fileNameLength_ = base.fileNameLength_;
+    sizes_ = base.sizes_;
+    spinThreshold_ = (spinThreshold >= 0) ? spinThreshold : -1L;
+    runnerThreads_ = (runnerThreads > 0) ? runnerThreads : -1;
   }
 
 
@@ -299,4 +325,71 @@ public class ConfigurationParameters implements Cloneable, Serializable
         return sizes_.clone();
       }
   }
+
+  /**
+   * Creates a copy of {@code this} with a different threshold at which
+   * {@link RealtimeThread#spin(int)} and
+   * {@link RealtimeThread#spin(HighResolutionTime)} switch from spinning
+   * to parking.
+   *
+   * @param spinThreshold The remaining time in nanoseconds below which a
+   *        spinning {@link Schedulable} created with the new parameters
+   *        polls the clock.  Longer waits park the schedulable until only
+   *        this much time remains.  The value {@code 0} parks for the
+   *        whole wait, and {@code Long.MAX_VALUE} never parks.  The
+   *        value {@code -1} uses a system default calibrated at startup.
+   *
+   * @return the new parameters; {@code this} is not changed.
+   *
+   * @since RTSJ 2.1
+   */
+  public ConfigurationParameters withSpinThreshold(long spinThreshold)
+  {
+    return new ConfigurationParameters(this, spinThreshold, runnerThreads_);
+  }
+
+  /**
+   * Creates a copy of {@code this} with a different number of threads in
+   * the pool of a {@link FirstInFirstOutReleaseRunner} created with the
+   * new parameters.
+   *
+   * @param runnerThreads The number of threads that run the releases of
+   *        the handlers attached to the runner.  The value {@code -1}
+   *        lets the runner size its pool from the number of handlers,
+   *        priorities and processors.
+   *
+   * @return the new parameters; {@code this} is not changed.
+   *
+   * @since RTSJ 2.1
+   */
+  public ConfigurationParameters withRunnerThreads(int runnerThreads)
+  {
+    return new ConfigurationParameters(this, spinThreshold_, runnerThreads);
+  }
+
+  /**
+   * Obtain the remaining time below which a spinning {@link Schedulable}
+   * created with these parameters polls the clock instead of parking.
+   *
+   * @return the threshold in nanoseconds.
+   *
+   * @since RTSJ 2.1
+   */
+  public long getSpinThreshold()
+  {
+    return spinThreshold_ >= 0 ? spinThreshold_ : SpinWait.DEFAULT_THRESHOLD;
+  }
+
+  /**
+   * Obtain the number of threads in the pool of a release runner created
+   * with these parameters.
+   *
+   * @return the number of threads, or {@code -1} when the runner decides.
+   *
+   * @since RTSJ 2.1
+   */
+  public int getRunnerThreads()
+  {
+    return runnerThreads_;
+  }
 }
@@ -0,0 +1,264 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+/**
+ * The ring of pending payloads of a handler, without the payloads
+ * themselves.  It keeps the position and number of the payloads and
+ * applies the {@link QueueOverflowPolicy} when the ring is full, while a
+ * subclass stores the payloads in an array of their own type, so that
+ * {@code long} payloads are never boxed.  Any number of events may add
+ * payloads while the handler takes them, so all methods are synchronized;
+ * subclasses access their array under the same lock.
+ */
+abstract class EventQueue
+{
+  /** The outcome of an offer that added a new payload. */
+  static final int ADDED = 0;
+
+  /** The outcome of an offer that merged into the newest payload. */
+  static final int MERGED = 1;
+
+  /** The outcome of an offer that replaced the newest payload on overflow. */
+  static final int REPLACED = 2;
+
+  /** The outcome of an offer that was ignored on overflow. */
+  static final int IGNORED = 3;
+
+  /** The outcome of an offer that was rejected on overflow. */
+  static final int FULL = 4;
+
+  /** The message of the exception thrown when the ring is full. */
+  static final String FULL_MESSAGE = "Event queue is full";
+
+  /** The first length of a ring that grows from zero. */
+  private static final int _MINIMUM_LENGTH_ = 4;
+
+  private final QueueOverflowPolicy policy_;
+  private int length_;
+  private int head_;
+  private int count_;
+
+  /**
+   * Determines the overflow policy of the event queue of a handler with
+   * a payload.
+   *
+   * @param release the release parameters of the handler, or
+   *        {@code null} for the default.
+   *
+   * @return the overflow policy.
+   *
+   * @throws StaticIllegalArgumentException when the policy is
+   *         {@link QueueOverflowPolicy#DISABLE}.
+   */
+  static QueueOverflowPolicy policy(ReleaseParameters<?> release)
+    throws StaticIllegalArgumentException
+  {
+    QueueOverflowPolicy policy = release == null ?
+      QueueOverflowPolicy.SAVE : release.getEventQueueOverflowPolicy();
+    if (policy == QueueOverflowPolicy.DISABLE)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Payload handlers cannot use the DISABLE policy");
+      }
+    return policy;
+  }
+
+  /**
+   * Determines the initial length of the event queue of a handler.
+   *
+   * @param release the release parameters of the handler, or
+   *        {@code null} for the default.
+   *
+   * @return the initial queue length.
+   */
+  static int length(ReleaseParameters<?> release)
+  {
+    return release == null ? 0 : release.getInitialQueueLength();
+  }
+
+  /**
+   * Creates an empty ring.
+   *
+   * @param length the initial length of the ring.  Only a ring with the
+   *        {@link QueueOverflowPolicy#SAVE} policy may start empty, since
+   *        it grows; with any other policy, the ring holds at least one
+   *        payload, as the default initial queue length of zero would
+   *        otherwise drop or reject every fire.
+   *
+   * @param policy the behavior when the ring is full, which must not be
+   *        {@link QueueOverflowPolicy#DISABLE}.
+   */
+  EventQueue(int length, QueueOverflowPolicy policy)
+  {
+    policy_ = policy;
+    length_ = policy == QueueOverflowPolicy.SAVE ?
+      length : Math.max(1, length);
+  }
+
+  /**
+   * Gets the length the subclass allocates its array with.
+   *
+   * @return the length of the ring.
+   */
+  final int capacity()
+  {
+    return length_;
+  }
+
+  /**
+   * Allocates the array of a subclass.
+   *
+   * @param length the length of the array.
+   *
+   * @return a new array of {@code length} elements.
+   */
+  abstract Object allocate(int length);
+
+  /**
+   * Gets the array of a subclass.
+   *
+   * @return the array that holds the payloads.
+   */
+  abstract Object elements();
+
+  /**
+   * Replaces the array of a subclass after the ring grew.
+   *
+   * @param elements the new array.
+   */
+  abstract void setElements(Object elements);
+
+  /**
+   * Drops the reference held by a slot of the array, for payloads that
+   * are references.
+   *
+   * @param index the index of the slot.
+   */
+  void clear(int index)
+  {
+  }
+
+  /**
+   * Makes room for the payload of a new release, applying the overflow
+   * policy when the ring is full.  Unless the payload is ignored or
+   * rejected, the caller then stores it at {@link #newest()}.
+   *
+   * @param merge whether the payload is to replace the newest pending
+   *        one, e.g., to enforce a minimum interarrival time.
+   *
+   * @return {@link #ADDED}, {@link #MERGED}, {@link #REPLACED},
+   *         {@link #IGNORED} or {@link #FULL}.
+   */
+  final synchronized int offer(boolean merge)
+  {
+    if (merge && count_ > 0)
+      {
+        return MERGED;
+      }
+    if (count_ == length_)
+      {
+        switch (policy_)
+          {
+          case EXCEPT:
+            return FULL;
+          case REPLACE:
+            return REPLACED;
+          case SAVE:
+            grow();
+            break;
+          default:
+            return IGNORED;
+          }
+      }
+    count_++;
+    return ADDED;
+  }
+
+  /**
+   * Doubles the length of the ring, keeping the order of the elements.
+   */
+  private void grow()
+  {
+    Object elements = elements();
+    int length = Math.max(_MINIMUM_LENGTH_, length_ << 1);
+    Object grown = allocate(length);
+    int first = Math.min(count_, length_ - head_);
+    System.arraycopy(elements, head_, grown, 0, first);
+    System.arraycopy(elements, 0, grown, first, count_ - first);
+    setElements(grown);
+    length_ = length;
+    head_ = 0;
+  }
+
+  /**
+   * Gets the index of a pending payload in the array.
+   *
+   * @param offset the position of the payload, zero for the oldest.
+   *
+   * @return the index of the payload.
+   */
+  final int index(int offset)
+  {
+    int index = head_ + offset;
+    return index < length_ ? index : index - length_;
+  }
+
+  /**
+   * Gets the index of the newest pending payload in the array.
+   *
+   * @return the index of the newest payload.
+   */
+  final int newest()
+  {
+    return index(count_ - 1);
+  }
+
+  /**
+   * Gets the index of the oldest pending payload in the array.
+   *
+   * @return the index of the oldest payload.
+   *
+   * @throws StaticIllegalStateException when the queue is empty.
+   */
+  final synchronized int oldest() throws StaticIllegalStateException
+  {
+    if (count_ == 0)
+      {
+        throw StaticIllegalStateException.get().init("No pending payload");
+      }
+    return head_;
+  }
+
+  /**
+   * Removes up to {@code count} of the oldest payloads.
+   *
+   * @param count the number of payloads to remove.
+   */
+  final synchronized void skip(int count)
+  {
+    count = Math.min(count, count_);
+    for (int i = 0; i < count; i++)
+      {
+        clear(index(i));
+      }
+    head_ = index(count);
+    count_ -= count;
+    if (count_ == 0)
+      {
+        head_ = 0;
+      }
+  }
+
+  /**
+   * Gets the number of pending payloads.
+   *
+   * @return the number of elements in the ring.
+   */
+  final synchronized int size()
+  {
+    return count_;
+  }
+}
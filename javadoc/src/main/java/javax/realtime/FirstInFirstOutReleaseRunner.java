@@ -1,9 +1,10 @@
 /*-----------------------------------------------------------------------*\
- * Copyright 2016-2023, aicas GmbH; all rights reserved.
+ * Copyright 2016-2024, aicas GmbH; all rights reserved.
  * This header, including copyright notice, may not be altered or removed.
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.IdentityHashMap;
 import java.util.function.IntBinaryOperator;
 
 /**
@@ -24,6 +25,52 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
   private final static RealtimeThreadGroup _default_group_ =
     new RealtimeThreadGroup("Default Release Runner");
 
+  /** Priorities are mapped to this many levels, from zero up. */
+  private static final int _LEVELS_ = 256;
+
+  private static final int _INITIAL_QUEUE_LENGTH_ = 8;
+
+  /*
+   * Pending releases wait in one FIFO ring per level.  ready_ has a bit
+   * for each level with pending releases and summary_ a bit for each
+   * nonzero word of ready_, so the highest ready level is found with
+   * two leading zero counts.  levels_ has a bit for each level that an
+   * attached handler was attached at.  A handler is queued at most once
+   * and run by at most one worker at a time, see Releases.  All state
+   * is guarded by the lock on this runner, on which idle workers wait.
+   */
+  private final Releases[][] queues_ = new Releases[_LEVELS_][];
+  private final int[] heads_ = new int[_LEVELS_];
+  private final int[] counts_ = new int[_LEVELS_];
+  private final long[] ready_ = new long[_LEVELS_ >> 6];
+  private int summary_;
+
+  private final int[] attached_ = new int[_LEVELS_];
+  private final long[] levels_ = new long[_LEVELS_ >> 6];
+
+  /**
+   * The releases of each attached handler, and of each detached handler
+   * that is still queued or running.
+   */
+  private final IdentityHashMap<Proxy, Releases> handlers_ =
+    new IdentityHashMap<>();
+
+  /** The number of attached handlers. */
+  private int attached_count_;
+
+  private final ConfigurationParameters config_;
+  private final RealtimeThreadGroup group_;
+  private final IntBinaryOperator sizer_;
+
+  /** The number of workers the pool should have. */
+  private int target_;
+
+  /** The number of workers, including those about to start. */
+  private int workers_;
+
+  /** The number of workers waiting for a release. */
+  private int idle_;
+
   /**
    * Create a release runner which maintains a pool of threads to run releases
    * of {@link AsyncBaseEventHandler} instances.  The threads in the pool all
@@ -31,8 +78,17 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
    * is determined by the binary function {@code sizer}.  When {@code sizer}
    * is {@code null}, a reasonable default is provided.
    *
+   * <p> Pending releases are run strictly by priority, and in FIFO order
+   * within a priority.  A release is only taken by a worker when enough
+   * workers remain idle for each higher priority at which a handler is
+   * attached, up to all but one worker, so that releases of lower
+   * priority cannot occupy the whole pool while higher priority ones
+   * wait.
+   *
    * @param config the ConfigurationParameters object to use for all handler
    *        run from this pool, which means for each thread in the pool.
+   *        When {@link ConfigurationParameters#getRunnerThreads()} is
+   *        positive, the default {@code sizer} uses that many threads.
    *
    * @param group for the pool threads.
    *
@@ -40,13 +96,18 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
    *        number of priorities of those handles to the
    *        number of threads in the pool.  It may use global
    *        information, such as the number of available CPUs.  It may
-   *        also ignore its arguments.
+   *        also ignore its arguments.  By default, there is one thread
+   *        for each priority plus one for each further processor, but
+   *        not more than there are handlers.
    */
   public FirstInFirstOutReleaseRunner(ConfigurationParameters config,
                                       RealtimeThreadGroup group,
                                       IntBinaryOperator sizer)
   {
     super(group == null ? _default_group_ : group);
+    config_ = config;
+    group_ = group == null ? _default_group_ : group;
+    sizer_ = sizer != null ? sizer : defaultSizer(config);
   }
 
 
@@ -60,14 +121,188 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
     this(config, null, null);
   }
 
+  private static IntBinaryOperator defaultSizer(ConfigurationParameters config)
+  {
+    final int threads = config == null ? -1 : config.getRunnerThreads();
+    if (threads > 0)
+      {
+        return (handlers, priorities) -> threads;
+      }
+    final int cpus = Runtime.getRuntime().availableProcessors();
+    return (handlers, priorities) ->
+      Math.min(handlers, priorities + cpus - 1);
+  }
+
   @Override
-  protected RealtimeThreadGroup getRealtimeThreadGroup() { return null; }
+  protected RealtimeThreadGroup getRealtimeThreadGroup() { return group_; }
 
   @Override
-  public ConfigurationParameters getConfigurationParameters() { return null; }
+  public ConfigurationParameters getConfigurationParameters()
+  {
+    return config_;
+  }
+
+  /**
+   * Maps the priority of {@code handler} to a level.
+   */
+  private static int level(Proxy handler)
+  {
+    SchedulingParameters scheduling = handler.getSchedulingParameters();
+    if (!(scheduling instanceof PriorityParameters))
+      {
+        return 0;
+      }
+    int priority = ((PriorityParameters)scheduling).getPriority();
+    return Math.max(0, Math.min(_LEVELS_ - 1, priority));
+  }
 
+  /**
+   * Queues {@code handler} at its current priority and wakes a worker,
+   * unless it is queued already.  When a worker runs it, the release
+   * is recorded so that the handler is queued again once that worker
+   * is done.  Nothing is allocated unless the queue of that priority is
+   * full.
+   *
+   * @param handler The handler to be released.
+   *
+   * @throws StaticIllegalStateException when {@code handler} is not
+   *         attached.
+   */
   @Override
-  protected void release(Proxy handler) {}
+  protected synchronized void release(Proxy handler)
+  {
+    Releases releases = handlers_.get(handler);
+    if (releases == null || !releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is not attached");
+      }
+    switch (releases.state_)
+      {
+      case Releases.IDLE:
+        enqueue(releases);
+        break;
+      case Releases.RUNNING:
+        releases.state_ = Releases.REQUESTED;
+        break;
+      default:
+        // a release is pending already and runs all fires counted
+        break;
+      }
+  }
+
+  /**
+   * Queues {@code releases} at the current priority of its handler and
+   * wakes a worker.
+   */
+  private void enqueue(Releases releases)
+  {
+    releases.state_ = Releases.QUEUED;
+    int level = level(releases.handler_);
+    Releases[] queue = queues_[level];
+    int count = counts_[level];
+    if (queue == null || count == queue.length)
+      {
+        queue = grow(level);
+      }
+    queue[(heads_[level] + count) & (queue.length - 1)] = releases;
+    counts_[level] = count + 1;
+    ready_[level >> 6] |= 1L << level;
+    summary_ |= 1 << (level >> 6);
+    if (idle_ > 0)
+      {
+        notify();
+      }
+  }
+
+  /**
+   * Doubles the length of the queue of {@code level}, keeping the order.
+   */
+  private Releases[] grow(int level)
+  {
+    Releases[] queue = queues_[level];
+    int count = counts_[level];
+    Releases[] grown = new Releases[queue == null ?
+                              _INITIAL_QUEUE_LENGTH_ : queue.length << 1];
+    for (int i = 0; i < count; i++)
+      {
+        grown[i] = queue[(heads_[level] + i) & (queue.length - 1)];
+      }
+    queues_[level] = grown;
+    heads_[level] = 0;
+    return grown;
+  }
+
+  /**
+   * Removes the oldest release of the highest ready level, when the
+   * calling worker, which counts as idle, may take it.  The handler of
+   * the release is then running.
+   *
+   * @return the release or {@code null}.
+   */
+  private Releases take()
+  {
+    if (summary_ == 0)
+      {
+        return null;
+      }
+    int word = 31 - Integer.numberOfLeadingZeros(summary_);
+    int level = (word << 6) + 63 - Long.numberOfLeadingZeros(ready_[word]);
+    if (idle_ - 1 < Math.min(levelsAbove(level), workers_ - 1))
+      {
+        return null;
+      }
+    Releases[] queue = queues_[level];
+    int head = heads_[level];
+    Releases releases = queue[head];
+    queue[head] = null;
+    heads_[level] = (head + 1) & (queue.length - 1);
+    if (--counts_[level] == 0)
+      {
+        ready_[word] &= ~(1L << level);
+        if (ready_[word] == 0L)
+          {
+            summary_ &= ~(1 << word);
+          }
+      }
+    releases.state_ = Releases.RUNNING;
+    return releases;
+  }
+
+  /**
+   * Ends the run of {@code releases} by a worker.  Its handler is queued
+   * again when it was released during the run, and forgotten when it
+   * was detached.
+   */
+  private void completed(Releases releases)
+  {
+    if (releases.state_ == Releases.REQUESTED && releases.attached_)
+      {
+        enqueue(releases);
+      }
+    else
+      {
+        releases.state_ = Releases.IDLE;
+        if (!releases.attached_)
+          {
+            handlers_.remove(releases.handler_);
+          }
+      }
+  }
+
+  /**
+   * Counts the levels above {@code level} at which handlers are attached.
+   */
+  private int levelsAbove(int level)
+  {
+    int word = level >> 6;
+    int count = Long.bitCount(levels_[word] & (-2L << level));
+    for (int i = word + 1; i < levels_.length; i++)
+      {
+        count += Long.bitCount(levels_[i]);
+      }
+    return count;
+  }
 
   /**
    * Attach a handler from this runner, so it will be released.
@@ -78,23 +313,216 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
    * @throws StaticIllegalArgumentException When {@code handler} is null
    */
   @Override
-  protected void attach(Proxy handler)
+  protected synchronized void attach(Proxy handler)
     throws StaticIllegalStateException
   {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    Releases releases = handlers_.get(handler);
+    if (releases == null)
+      {
+        releases = new Releases(handler);
+        handlers_.put(handler, releases);
+      }
+    else if (releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is already attached");
+      }
+    else
+      {
+        // its last release may still run, so keep it from overlapping
+        releases.attached_ = true;
+      }
+    int level = level(handler);
+    releases.level_ = level;
+    attached_count_++;
+    if (attached_[level]++ == 0)
+      {
+        levels_[level >> 6] |= 1L << level;
+      }
+    resize();
   }
 
   /**
    * Detach a handler from this runner, so it will no longer be released.
-   * Adjusts the number of threads for running handlers accordingly.
+   * A release that is running completes, but a pending release is not
+   * run anymore.  Adjusts the number of threads for running handlers
+   * accordingly.
    *
    * @param handler to be detached.
    *
    * @throws StaticIllegalArgumentException When {@code handler} is null
    */
   @Override
-  protected void detach(Proxy handler)
+  protected synchronized void detach(Proxy handler)
     throws StaticIllegalStateException
   {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    Releases releases = handlers_.get(handler);
+    if (releases == null || !releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is not attached");
+      }
+    releases.attached_ = false;
+    if (releases.state_ == Releases.IDLE)
+      {
+        handlers_.remove(handler);
+      }
+    attached_count_--;
+    int level = releases.level_;
+    if (--attached_[level] == 0)
+      {
+        levels_[level >> 6] &= ~(1L << level);
+      }
+    resize();
+  }
+
+  /**
+   * Recomputes the size of the pool and starts the missing workers.
+   * Surplus workers terminate once they are idle.
+   */
+  private void resize()
+  {
+    int handlers = attached_count_;
+    int priorities = 0;
+    for (long word : levels_)
+      {
+        priorities += Long.bitCount(word);
+      }
+    target_ = handlers == 0 ?
+      0 : Math.max(1, sizer_.applyAsInt(handlers, priorities));
+    while (workers_ < target_)
+      {
+        HandlerThread worker = new HandlerThread();
+        workers_++;
+        startWorker(worker);
+      }
+    if (workers_ > target_ && idle_ > 0)
+      {
+        notifyAll();
+      }
+  }
+
+  /**
+   * Starts a new worker.  The tests override this to run the workers on
+   * plain threads where realtime threads cannot be started.
+   *
+   * @param worker the worker to start.
+   */
+  void startWorker(Thread worker)
+  {
+    worker.start();
+  }
+
+  /**
+   * Runs releases until the pool shrinks below the calling worker.  An
+   * error thrown by a handler ends the worker; the handler reports
+   * other exceptions itself.
+   */
+  private void work(HandlerThread worker)
+  {
+    Releases releases = null;
+    while (true)
+      {
+        synchronized (this)
+          {
+            if (releases != null)
+              {
+                completed(releases);
+              }
+            idle_++;
+            while ((releases = take()) == null)
+              {
+                if (workers_ > target_)
+                  {
+                    idle_--;
+                    workers_--;
+                    return;
+                  }
+                try
+                  {
+                    wait();
+                  }
+                catch (InterruptedException e)
+                  {
+                    // Workers are only stopped by shrinking the pool.
+                  }
+              }
+            idle_--;
+          }
+        if (!releases.attached_)
+          {
+            continue;
+          }
+        Proxy handler = releases.handler_;
+        SchedulingParameters scheduling = handler.getSchedulingParameters();
+        if (scheduling != null)
+          {
+            worker.setSchedulingParameters(scheduling);
+          }
+        boolean completed = false;
+        try
+          {
+            handler.run();
+            completed = true;
+          }
+        finally
+          {
+            if (!completed)
+              {
+                abandon(releases);
+              }
+          }
+      }
+  }
+
+  /**
+   * Ends the run of {@code releases} by a worker whose handler threw an
+   * error, which then ends the worker.  A worker is started to replace
+   * it, so the pool keeps its size.
+   */
+  private synchronized void abandon(Releases releases)
+  {
+    completed(releases);
+    workers_--;
+    resize();
+  }
+
+  /**
+   * The releases of one handler, guarded by the lock on the runner.
+   * {@code state_} is {@code IDLE} while the handler is neither queued
+   * nor run, {@code QUEUED} while it waits in a queue, {@code RUNNING}
+   * while a worker runs it, and {@code REQUESTED} when a release arrived
+   * while it runs, so that the worker queues it again.  A handler is
+   * thus never run by two workers at once.  The state of a detached
+   * handler is kept until it is idle, so that attaching the handler
+   * again reuses it.
+   */
+  private static final class Releases
+  {
+    static final int IDLE = 0;
+    static final int QUEUED = 1;
+    static final int RUNNING = 2;
+    static final int REQUESTED = 3;
+
+    final Proxy handler_;
+    int state_ = IDLE;
+    boolean attached_ = true;
+
+    /** The level the handler was attached at. */
+    int level_;
+
+    Releases(Proxy handler)
+    {
+      handler_ = handler;
+    }
   }
 
   /**
@@ -102,5 +530,16 @@ public class FirstInFirstOutReleaseRunner extends ReleaseRunner
    */
   private final class HandlerThread extends RealtimeThread
   {
+    HandlerThread()
+    {
+      super(null, null, null, null, config_, group_, null);
+      setDaemon(true);
+    }
+
+    @Override
+    public void run()
+    {
+      work(this);
+    }
   }
 }
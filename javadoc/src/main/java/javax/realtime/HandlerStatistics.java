@@ -0,0 +1,210 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timing statistics of an {@link AsyncBaseEventHandler}, collected after
+ * {@link AsyncBaseEventHandler#enableStatistics()} is called.  They tell
+ * apart the time a release waits before it runs, which depends on the
+ * event, the dispatcher and the {@link ReleaseRunner}, from the time the
+ * handler logic takes once it runs.  All values can be read while the
+ * handler is running.
+ *
+ * @since RTSJ 2.1
+ */
+public final class HandlerStatistics
+{
+  /**
+   * The number of fire times kept, a power of two.  When more releases
+   * are pending, the oldest ones lose their release latency sample.
+   */
+  private static final int _CAPACITY_ = 64;
+
+  private final LatencyHistogram release_latency_ = new LatencyHistogram();
+  private final LatencyHistogram execution_time_ = new LatencyHistogram();
+  private final AtomicLong high_water_mark_ = new AtomicLong();
+  private final AtomicLong overflows_ = new AtomicLong();
+
+  /**
+   * The fire times of the pending releases, in a ring indexed by the
+   * sequence number of each fire.  Each slot is tagged with one more
+   * than the sequence number of its time, or zero while it is written,
+   * so that a time overwritten by a later fire is recognized and
+   * dropped instead of being taken for the wrong release.
+   */
+  private final AtomicLongArray fire_times_ = new AtomicLongArray(_CAPACITY_);
+  private final AtomicLongArray fire_tags_ = new AtomicLongArray(_CAPACITY_);
+
+  /** The sequence number of the next fire. */
+  private final AtomicLong fired_ = new AtomicLong();
+
+  /** The sequence number of the oldest fire not yet started. */
+  private final AtomicLong started_ = new AtomicLong();
+
+  HandlerStatistics()
+  {
+  }
+
+  /**
+   * Gets the histogram of the time from a fire of the handler, or a
+   * direct release, until the handler starts to handle it.
+   *
+   * @return the histogram of the release latencies in nanoseconds.
+   */
+  public LatencyHistogram getReleaseLatency()
+  {
+    return release_latency_;
+  }
+
+  /**
+   * Gets the histogram of the time from the start of handling a release
+   * until the handler completes it.  This is elapsed time, which includes
+   * any time the handler is preempted or blocked, so it is an upper bound
+   * of the consumption of each release.
+   *
+   * @return the histogram of the execution times in nanoseconds.
+   */
+  public LatencyHistogram getExecutionTime()
+  {
+    return execution_time_;
+  }
+
+  /**
+   * Gets the largest number of releases that were pending at once.
+   *
+   * @return the high-water mark of the fire count.
+   */
+  public long getQueueHighWaterMark()
+  {
+    return high_water_mark_.get();
+  }
+
+  /**
+   * Gets the number of fires that were not queued as a release of their
+   * own, because the event queue of the handler was full and its
+   * {@link QueueOverflowPolicy} ignored or replaced them or raised an
+   * exception.
+   *
+   * @return the number of overflows.
+   */
+  public long getOverflowCount()
+  {
+    return overflows_.get();
+  }
+
+  /**
+   * Discards all statistics collected so far.
+   */
+  public void reset()
+  {
+    release_latency_.reset();
+    execution_time_.reset();
+    high_water_mark_.set(0L);
+    overflows_.set(0L);
+  }
+
+  /**
+   * Records a release before it is counted, so that its fire time is
+   * stored before the release can be started.  This takes no lock and
+   * allocates nothing.
+   *
+   * @param pending the number of pending releases including this one.
+   */
+  void fired(int pending)
+  {
+    long now = System.nanoTime();
+    long sequence = fired_.getAndIncrement();
+    int slot = (int)sequence & (_CAPACITY_ - 1);
+    fire_tags_.set(slot, 0L);
+    fire_times_.set(slot, now);
+    fire_tags_.set(slot, sequence + 1);
+    long mark = high_water_mark_.get();
+    while (pending > mark && !high_water_mark_.compareAndSet(mark, pending))
+      {
+        mark = high_water_mark_.get();
+      }
+  }
+
+  /**
+   * Records a fire that overflowed the event queue.
+   */
+  void overflowed()
+  {
+    overflows_.incrementAndGet();
+  }
+
+  /**
+   * Records the start of handling the oldest pending release.  Releases
+   * are started in the order of their fires, so its fire time is the
+   * oldest one not yet started or discarded.
+   *
+   * @return the start time for {@link #completed(long)}.
+   */
+  long started()
+  {
+    long now = System.nanoTime();
+    long sequence = take(1);
+    if (sequence >= 0)
+      {
+        int slot = (int)sequence & (_CAPACITY_ - 1);
+        long tag = fire_tags_.get(slot);
+        long fired = fire_times_.get(slot);
+        if (tag == sequence + 1 && fire_tags_.get(slot) == tag)
+          {
+            release_latency_.record(now - fired);
+          }
+      }
+    return now;
+  }
+
+  /**
+   * Discards the fire times of releases that were handled without being
+   * started, e.g., by clearing the fire count.
+   *
+   * @param count the number of releases.
+   */
+  void discarded(int count)
+  {
+    take(count);
+  }
+
+  /**
+   * Takes the fire times of up to {@code count} of the oldest releases,
+   * but none that have not been recorded, e.g., before the statistics
+   * were enabled.
+   *
+   * @return the sequence number of the last fire taken, or {@code -1}
+   *         when none was taken.
+   */
+  private long take(int count)
+  {
+    while (true)
+      {
+        long first = started_.get();
+        long next = Math.min(first + count, fired_.get());
+        if (next <= first)
+          {
+            return -1L;
+          }
+        if (started_.compareAndSet(first, next))
+          {
+            return next - 1;
+          }
+      }
+  }
+
+  /**
+   * Records the completion of a release.
+   *
+   * @param start the value returned by {@link #started()}.
+   */
+  void completed(long start)
+  {
+    execution_time_.record(System.nanoTime() - start);
+  }
+}
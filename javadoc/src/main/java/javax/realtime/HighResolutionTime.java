@@ -23,6 +23,41 @@ import javax.realtime.control.AsynchronouslyInterruptedException;
 public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
   implements Comparable<T>, Cloneable
 {
+  static final long NANOS_PER_MILLI = 1000000L;
+
+  /**
+   * Gets the exception thrown by the arithmetic methods when a result
+   * does not fit in the normalized format.  It is a static throwable, so
+   * that overflow checks on the allocation free paths do not allocate
+   * either.
+   */
+  static StaticArithmeticException overflow()
+  {
+    return StaticArithmeticException.get().
+      init("Time does not fit in the normalized format");
+  }
+
+  /**
+   * The largest magnitude of the millisecond component for which the
+   * value may fit in a single {@code long} of nanoseconds.
+   */
+  private static final long MAX_PACKED_MILLIS =
+    Long.MAX_VALUE / NANOS_PER_MILLI;
+
+  /*
+   * A time is kept as a single count of nanoseconds in total_ whenever
+   * it fits in a long, which covers about 292 years in either direction.
+   * Only larger values fall back to the pair millis_ and nanos_.  Since
+   * the choice depends on the normalized value alone, two equal times
+   * always use the same representation, so comparing and hashing packed
+   * times needs just one word.
+   */
+  private Chronograph chronograph_;
+  private long total_;
+  private boolean packed_;
+  private long millis_;
+  private int nanos_;
+
   /**
    * Behaves like {@code target.wait()} but with the
    * enhancement that it waits with a precision of
@@ -86,6 +121,309 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    */
   HighResolutionTime(long milliseconds, int nanoseconds, Chronograph chronograph)
   {
+    chronograph_ =
+      chronograph == null ? Clock.getRealtimeClock() : chronograph;
+    if (!assign(milliseconds, nanoseconds))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Overflow while normalizing");
+      }
+  }
+
+  /**
+   * Sets the value of {@code this} to the normalized form of
+   * {@code millis} plus {@code nanos}, where the nanoseconds may exceed
+   * the range of a millisecond.  Normalization gives both components the
+   * same sign, with the nanoseconds in the open interval
+   * (-10<sup>6</sup>, 10<sup>6</sup>).  Neither allocates nor throws.
+   *
+   * @param millis the millisecond part.
+   * @param nanos the nanosecond part.
+   *
+   * @return {@code true} when successful; {@code false} when the
+   *         millisecond component overflows, leaving {@code this}
+   *         unchanged.
+   */
+  final boolean assign(long millis, long nanos)
+  {
+    long carry = nanos / NANOS_PER_MILLI;
+    long ms = millis + carry;
+    if (((millis ^ ms) & (carry ^ ms)) < 0)
+      {
+        return false;
+      }
+    long ns = nanos - carry * NANOS_PER_MILLI;
+    // When the signs differ, borrow one millisecond toward zero.
+    long borrow = ((Long.signum(ms) * Long.signum(ns)) >> 63) & -Long.signum(ms);
+    store(ms + borrow, (int)(ns - borrow * NANOS_PER_MILLI));
+    return true;
+  }
+
+  /**
+   * Stores a normalized value, packing it into a single count of
+   * nanoseconds when that does not overflow.
+   *
+   * @param millis the normalized millisecond part.
+   * @param nanos the normalized nanosecond part, of the same sign.
+   */
+  private void store(long millis, int nanos)
+  {
+    if (millis >= -MAX_PACKED_MILLIS && millis <= MAX_PACKED_MILLIS)
+      {
+        long base = millis * NANOS_PER_MILLI;
+        long total = base + nanos;
+        if (((base ^ total) & (nanos ^ total)) >= 0)
+          {
+            total_ = total;
+            packed_ = true;
+            return;
+          }
+      }
+    millis_ = millis;
+    nanos_ = nanos;
+    packed_ = false;
+  }
+
+  /**
+   * Sets the value of {@code this} to {@code total} nanoseconds.  Every
+   * {@code long} is a valid packed value, so this cannot fail.
+   *
+   * @param total the new value in nanoseconds.
+   */
+  final void assignNanos(long total)
+  {
+    total_ = total;
+    packed_ = true;
+  }
+
+  /**
+   * Determines whether the value of {@code this} is held as a single
+   * count of nanoseconds, as returned by {@link #packedNanos()}.
+   *
+   * @return {@code true} when the value fits in a {@code long} of
+   *         nanoseconds.
+   */
+  final boolean isPacked()
+  {
+    return packed_;
+  }
+
+  /**
+   * Gets the value of {@code this} in nanoseconds.  Only meaningful
+   * when {@link #isPacked()} holds.
+   *
+   * @return the packed value.
+   */
+  final long packedNanos()
+  {
+    return total_;
+  }
+
+  /**
+   * Same as {@link #assign(long, long)}, but throws
+   * {@link #overflow()} when the result does not fit.
+   */
+  final void assignOrOverflow(long millis, long nanos)
+    throws ArithmeticException
+  {
+    if (!assign(millis, nanos))
+      {
+        throw overflow();
+      }
+  }
+
+  /**
+   * Stores the normalized sum of {@code this}, {@code millis} and
+   * {@code nanos} in {@code result}, associating it with the chronograph
+   * of {@code this}.  Allocates nothing, and {@code result} may be
+   * {@code this}.
+   *
+   * @param millis the milliseconds to add.
+   * @param nanos the nanoseconds to add.
+   * @param result the destination.
+   *
+   * @throws ArithmeticException when the sum does not fit, leaving
+   *         {@code result} unchanged.
+   */
+  final void addTo(long millis, long nanos, HighResolutionTime<?> result)
+    throws ArithmeticException
+  {
+    long own = getMilliseconds();
+    long ms = own + millis;
+    if (((own ^ ms) & (millis ^ ms)) < 0)
+      {
+        throw overflow();
+      }
+    Chronograph chronograph = chronograph_;
+    result.assignOrOverflow(ms, getNanoseconds() + nanos);
+    result.chronograph_ = chronograph;
+  }
+
+  /**
+   * Stores the normalized sum of {@code this} and {@code time} in
+   * {@code result}, like {@link #addTo(long, long, HighResolutionTime)},
+   * but with a single addition when both values are packed.
+   *
+   * @param time the time to add.
+   * @param result the destination.
+   *
+   * @throws ArithmeticException when the sum does not fit, leaving
+   *         {@code result} unchanged.
+   */
+  final void addTo(HighResolutionTime<?> time, HighResolutionTime<?> result)
+    throws ArithmeticException
+  {
+    if (packed_ && time.packed_)
+      {
+        long total = total_ + time.total_;
+        if (((total_ ^ total) & (time.total_ ^ total)) >= 0)
+          {
+            result.chronograph_ = chronograph_;
+            result.assignNanos(total);
+            return;
+          }
+      }
+    addTo(time.getMilliseconds(), time.getNanoseconds(), result);
+  }
+
+  /**
+   * Stores the normalized difference of {@code this} and {@code millis}
+   * plus {@code nanos} in {@code result}, associating it with the
+   * chronograph of {@code this}.  Allocates nothing, and {@code result}
+   * may be {@code this}.
+   *
+   * @param millis the milliseconds to subtract.
+   * @param nanos the nanoseconds to subtract.
+   * @param result the destination.
+   *
+   * @throws ArithmeticException when the difference does not fit,
+   *         leaving {@code result} unchanged.
+   */
+  final void subtractTo(long millis, long nanos, HighResolutionTime<?> result)
+    throws ArithmeticException
+  {
+    long own = getMilliseconds();
+    long ms = own - millis;
+    if (((own ^ millis) & (own ^ ms)) < 0)
+      {
+        throw overflow();
+      }
+    Chronograph chronograph = chronograph_;
+    result.assignOrOverflow(ms, getNanoseconds() - nanos);
+    result.chronograph_ = chronograph;
+  }
+
+  /**
+   * Stores the normalized difference of {@code this} and {@code time}
+   * in {@code result}, like
+   * {@link #subtractTo(long, long, HighResolutionTime)}, but with a
+   * single subtraction when both values are packed.
+   *
+   * @param time the time to subtract.
+   * @param result the destination.
+   *
+   * @throws ArithmeticException when the difference does not fit,
+   *         leaving {@code result} unchanged.
+   */
+  final void subtractTo(HighResolutionTime<?> time,
+                        HighResolutionTime<?> result)
+    throws ArithmeticException
+  {
+    if (packed_ && time.packed_)
+      {
+        long total = total_ - time.total_;
+        if (((total_ ^ time.total_) & (total_ ^ total)) >= 0)
+          {
+            result.chronograph_ = chronograph_;
+            result.assignNanos(total);
+            return;
+          }
+      }
+    subtractTo(time.getMilliseconds(), time.getNanoseconds(), result);
+  }
+
+  /**
+   * Compares the values of {@code this} and {@code time}, ignoring
+   * their chronographs.  Packed values take a single comparison.
+   *
+   * @param time the other time.
+   *
+   * @return a negative integer, zero, or a positive integer as
+   *         {@code this} is less than, equal to, or greater than
+   *         {@code time}.
+   */
+  final int compareValue(HighResolutionTime<?> time)
+  {
+    if (packed_ && time.packed_)
+      {
+        return Long.compare(total_, time.total_);
+      }
+    int result = Long.compare(getMilliseconds(), time.getMilliseconds());
+    return result != 0 ?
+      result : Integer.compare(getNanoseconds(), time.getNanoseconds());
+  }
+
+  /**
+   * Determines whether {@code this} and {@code time} have the same
+   * value, ignoring their chronographs.  Since the representation is
+   * canonical, a packed value never equals an unpacked one.
+   *
+   * @param time the other time.
+   *
+   * @return {@code true} when both values are the same.
+   */
+  final boolean sameValue(HighResolutionTime<?> time)
+  {
+    if (packed_ != time.packed_)
+      {
+        return false;
+      }
+    return packed_ ?
+      total_ == time.total_ :
+      millis_ == time.millis_ && nanos_ == time.nanos_;
+  }
+
+  /**
+   * Gets the sign of the value of {@code this}.
+   *
+   * @return -1, 0 or 1 as the value is negative, zero or positive.
+   */
+  final int signum()
+  {
+    // An unpacked value is too large to have a zero millisecond part.
+    return Long.signum(packed_ ? total_ : millis_);
+  }
+
+  /**
+   * Sets the chronograph association without checking for {@code null}.
+   *
+   * @param chronograph the new association.
+   */
+  final void setChronograph(Chronograph chronograph)
+  {
+    chronograph_ = chronograph;
+  }
+
+  /**
+   * Checks that {@code time} may be combined with {@code this}.
+   *
+   * @param time the other operand of an arithmetic method.
+   *
+   * @throws StaticIllegalArgumentException when {@code time} is
+   *         {@code null} or has a different chronograph.
+   */
+  final void checkCompatible(HighResolutionTime<?> time)
+    throws StaticIllegalArgumentException
+  {
+    if (time == null)
+      {
+        throw StaticIllegalArgumentException.get().init("time is null");
+      }
+    if (time.chronograph_ != chronograph_)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Different chronographs");
+      }
   }
 
   /**
@@ -102,7 +440,13 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    *
    * @since RTSJ 2.0
    */
-  public boolean equals(T time) { return false; }
+  public boolean equals(T time)
+  {
+    return time != null &&
+      time.getClass() == getClass() &&
+      ((HighResolutionTime<?>)time).chronograph_ == chronograph_ &&
+      sameValue(time);
+  }
 
   /**
    * Gets the reference to the {@code clock} associated with
@@ -118,7 +462,12 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    */
   public Clock getClock() throws StaticUnsupportedOperationException
   {
-    return null;
+    if (!(chronograph_ instanceof Clock))
+      {
+        throw StaticUnsupportedOperationException.get().
+          init("Chronograph is not a clock");
+      }
+    return (Clock)chronograph_;
   }
 
   /**
@@ -130,7 +479,7 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    *
    * @since RTSJ 2.0
    */
-  public final Chronograph getChronograph() { return null; }
+  public final Chronograph getChronograph() { return chronograph_; }
 
   /**
    * Gets the milliseconds component of {@code this}.
@@ -138,7 +487,10 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @return the milliseconds component of the time
    *         represented by {@code this}.
    */
-  public final long getMilliseconds() { return 0; }
+  public final long getMilliseconds()
+  {
+    return packed_ ? total_ / NANOS_PER_MILLI : millis_;
+  }
 
   /**
    * Gets the nanoseconds component of {@code this}.
@@ -146,7 +498,10 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @return the nanoseconds component of the time
    *    represented by {@code this}.
    */
-  public final int getNanoseconds() { return 0; }
+  public final int getNanoseconds()
+  {
+    return packed_ ? (int)(total_ % NANOS_PER_MILLI) : nanos_;
+  }
 
   /**
    * Changes the value represented by {@code this} to that of the
@@ -207,7 +562,7 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
   public T set(Chronograph chronograph, long millis, int nanos)
     throws StaticIllegalArgumentException
   {
-    // set chronograph
+    chronograph_ = chronograph;
     return set(millis, nanos);
   }
 
@@ -235,10 +590,15 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @since RTSJ 2.0 returns itself
    */
   @ReturnsThis
+  @SuppressWarnings("unchecked")
   public T set(long millis, int nanos) throws StaticIllegalArgumentException
   {
-    // set nanos
-    return set(millis);
+    if (!assign(millis, nanos))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Overflow while normalizing");
+      }
+    return (T)this;
   }
 
 
@@ -256,7 +616,11 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @since RTSJ 2.0 returns itself
    */
   @ReturnsThis
-  public T set(long millis) { return (T)this; }
+  public T set(long millis)
+  {
+    store(millis, 0);
+    return (T)this;
+  }
 
   /**
    * Returns a hash code for this object in accordance with the general
@@ -266,7 +630,11 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    *  @return the hashcode value for this instance.
    */
   @Override
-  public int hashCode() { return 0; }
+  public int hashCode()
+  {
+    return packed_ ?
+      Long.hashCode(total_) : 31 * Long.hashCode(millis_) + nanos_;
+  }
 
   /**
    * Returns a clone of {@code this}.  This method should behave
@@ -277,7 +645,17 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @since RTSJ 1.0.1
    */
   @Override
-  public Object clone() { return null; }
+  public Object clone()
+  {
+    try
+      {
+        return super.clone();
+      }
+    catch (CloneNotSupportedException e)
+      {
+        throw new InternalError(e.toString());
+      }
+  }
 
   /**
    *  Compares {@code this} {@code HighResolutionTime}
@@ -297,7 +675,11 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * @since RTSJ 2.0
    */
   @Override
-  public int compareTo(T time) { return 0; }
+  public int compareTo(T time)
+  {
+    checkCompatible(time);
+    return compareValue(time);
+  }
 
   /**
    * Determined whether or not the argument {@code object} has the
@@ -314,7 +696,13 @@ public abstract class HighResolutionTime<T extends HighResolutionTime<T>>
    * values as {@code this}, as well as the same {@code Chronograph} association.
    */
   @Override
-  public boolean equals(Object object) { return false; }
+  public boolean equals(Object object)
+  {
+    return object instanceof HighResolutionTime &&
+      object.getClass() == getClass() &&
+      ((HighResolutionTime<?>)object).chronograph_ == chronograph_ &&
+      sameValue((HighResolutionTime<?>)object);
+  }
 
   /**
    * Converts the time of {@code this} to an absolute time, using the
@@ -0,0 +1,221 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with logarithmic buckets.
+ * Values below 64 have a bucket each; above, each power of two is split
+ * into 32 buckets, so a value is attributed to a bucket whose bounds
+ * are within about three percent of it, over the whole range of
+ * {@code long}.
+ *
+ * <p> Values are recorded without locking or allocation, so a histogram
+ * can be fed from the release of a handler.  It can be read at any time
+ * while values are recorded; the result then reflects some, but not
+ * necessarily all, of the values recorded concurrently.
+ *
+ * @since RTSJ 2.1
+ */
+public final class LatencyHistogram
+{
+  /** The number of bits of a value that determine its bucket. */
+  private static final int _PRECISION_ = 6;
+
+  private static final int _HALF_ = 1 << (_PRECISION_ - 1);
+
+  private static final int _BUCKETS_ =
+    (63 - _PRECISION_) * _HALF_ + 2 * _HALF_;
+
+  private final AtomicLongArray counts_ = new AtomicLongArray(_BUCKETS_);
+  private final AtomicLong total_ = new AtomicLong();
+  private final AtomicLong sum_ = new AtomicLong();
+  private final AtomicLong max_ = new AtomicLong();
+
+  /**
+   * Creates an empty histogram.
+   */
+  public LatencyHistogram()
+  {
+  }
+
+  /**
+   * Determines the bucket of {@code value}.
+   */
+  private static int bucket(long value)
+  {
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (_PRECISION_ - 1);
+    if (shift <= 0)
+      {
+        return (int)value;
+      }
+    return shift * _HALF_ + (int)(value >>> shift);
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration in nanoseconds.  Negative values are
+   *        recorded as zero.
+   */
+  public void record(long nanos)
+  {
+    long value = Math.max(nanos, 0L);
+    counts_.incrementAndGet(bucket(value));
+    total_.incrementAndGet();
+    sum_.addAndGet(value);
+    long max = max_.get();
+    while (value > max && !max_.compareAndSet(max, value))
+      {
+        max = max_.get();
+      }
+  }
+
+  /**
+   * Gets the number of recorded values.
+   *
+   * @return the number of values recorded since creation or the last
+   *         {@link #reset()}.
+   */
+  public long getTotalCount()
+  {
+    return total_.get();
+  }
+
+  /**
+   * Gets the largest recorded value.
+   *
+   * @return the exact largest value, or zero when none was recorded.
+   */
+  public long getMaxValue()
+  {
+    return max_.get();
+  }
+
+  /**
+   * Gets the average of the recorded values.
+   *
+   * @return the exact mean, or zero when no value was recorded.
+   */
+  public double getMean()
+  {
+    long total = total_.get();
+    return total == 0 ? 0.0 : (double)sum_.get() / total;
+  }
+
+  /**
+   * Gets an upper bound of the values below which the given percentage
+   * of the recorded values fall.
+   *
+   * @param percentile the percentage, from 0.0 to 100.0.
+   *
+   * @return the upper bound of the bucket that contains the value at
+   *         {@code percentile}, but at most the largest recorded value,
+   *         or zero when none was recorded.
+   *
+   * @throws StaticIllegalArgumentException when {@code percentile} is
+   *         not between 0.0 and 100.0.
+   */
+  public long getValueAtPercentile(double percentile)
+    throws StaticIllegalArgumentException
+  {
+    if (!(percentile >= 0.0 && percentile <= 100.0))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid percentile " + percentile);
+      }
+    long total = total_.get();
+    long rank = Math.max(1L, (long)Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < _BUCKETS_; i++)
+      {
+        seen += counts_.get(i);
+        if (seen >= rank)
+          {
+            long upper = i + 1 < _BUCKETS_ ?
+              getBucketLowerBound(i + 1) - 1 : Long.MAX_VALUE;
+            return Math.min(upper, max_.get());
+          }
+      }
+    return max_.get();
+  }
+
+  /**
+   * Gets the number of buckets, for exporting the histogram.
+   *
+   * @return the number of buckets.
+   */
+  public int getBucketCount()
+  {
+    return _BUCKETS_;
+  }
+
+  /**
+   * Gets the smallest value attributed to a bucket.
+   *
+   * @param index the index of the bucket, from zero to
+   *        {@link #getBucketCount()} exclusive.
+   *
+   * @return the lower bound of the bucket.
+   *
+   * @throws StaticIllegalArgumentException when {@code index} is out of
+   *         range.
+   */
+  public long getBucketLowerBound(int index)
+    throws StaticIllegalArgumentException
+  {
+    checkIndex(index);
+    if (index < 2 * _HALF_)
+      {
+        return index;
+      }
+    int shift = index / _HALF_ - 1;
+    return (long)(index % _HALF_ + _HALF_) << shift;
+  }
+
+  /**
+   * Gets the number of recorded values attributed to a bucket.
+   *
+   * @param index the index of the bucket, from zero to
+   *        {@link #getBucketCount()} exclusive.
+   *
+   * @return the count of the bucket.
+   *
+   * @throws StaticIllegalArgumentException when {@code index} is out of
+   *         range.
+   */
+  public long getCount(int index)
+    throws StaticIllegalArgumentException
+  {
+    checkIndex(index);
+    return counts_.get(index);
+  }
+
+  private static void checkIndex(int index)
+  {
+    if (index < 0 || index >= _BUCKETS_)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid bucket " + index);
+      }
+  }
+
+  /**
+   * Discards all recorded values.  Values recorded concurrently may be
+   * partially kept.
+   */
+  public void reset()
+  {
+    for (int i = 0; i < _BUCKETS_; i++)
+      {
+        counts_.set(i, 0L);
+      }
+    total_.set(0L);
+    sum_.set(0L);
+    max_.set(0L);
+  }
+}
@@ -0,0 +1,94 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+/**
+ * The queue of pending payloads of an {@link AsyncLongEventHandler}.
+ * The payloads are kept in a ring of primitive {@code long} values, so
+ * that they are never boxed.
+ */
+final class LongEventQueue extends EventQueue
+{
+  private long[] elements_;
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param length the initial length of the ring.
+   *
+   * @param policy the behavior when the ring is full, which must not be
+   *        {@link QueueOverflowPolicy#DISABLE}.
+   */
+  LongEventQueue(int length, QueueOverflowPolicy policy)
+  {
+    super(length, policy);
+    elements_ = new long[capacity()];
+  }
+
+  @Override
+  Object allocate(int length)
+  {
+    return new long[length];
+  }
+
+  @Override
+  Object elements()
+  {
+    return elements_;
+  }
+
+  @Override
+  void setElements(Object elements)
+  {
+    elements_ = (long[])elements;
+  }
+
+  /**
+   * Adds {@code value} as the payload of a new release, applying the
+   * overflow policy when the ring is full.
+   *
+   * @param value the payload to add.
+   *
+   * @param merge whether {@code value} is to replace the newest pending
+   *        payload, if any.
+   *
+   * @return the outcome, as described by {@link EventQueue#offer(boolean)}.
+   */
+  synchronized int add(long value, boolean merge)
+  {
+    int outcome = offer(merge);
+    if (outcome <= REPLACED)
+      {
+        elements_[newest()] = value;
+      }
+    return outcome;
+  }
+
+  /**
+   * Gets the oldest payload without removing it.
+   *
+   * @return the oldest payload.
+   *
+   * @throws StaticIllegalStateException when the queue is empty.
+   */
+  synchronized long peek() throws StaticIllegalStateException
+  {
+    return elements_[oldest()];
+  }
+
+  /**
+   * Removes the oldest payload.
+   *
+   * @return the oldest payload.
+   *
+   * @throws StaticIllegalStateException when the queue is empty.
+   */
+  synchronized long poll() throws StaticIllegalStateException
+  {
+    long value = peek();
+    skip(1);
+    return value;
+  }
+}
@@ -0,0 +1,139 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+/**
+ * The queue of pending payloads of an {@link AsyncObjectEventHandler}.
+ * The payloads are stored directly in a ring of references that is
+ * allocated in the memory area of the handler, also when the ring grows,
+ * so adding a payload allocates nothing unless the
+ * {@link QueueOverflowPolicy#SAVE} policy lengthens the ring.  Slots are
+ * cleared when their payload is taken, so the ring does not keep handled
+ * payloads alive.
+ *
+ * @param <P> the type of the payloads.
+ */
+final class ObjectEventQueue<P> extends EventQueue
+{
+  private final MemoryArea area_;
+  private Object[] elements_;
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param length the initial length of the ring.
+   *
+   * @param policy the behavior when the ring is full, which must not be
+   *        {@link QueueOverflowPolicy#DISABLE}.
+   *
+   * @param area the memory area for the ring, or {@code null} for the
+   *        current allocation context.
+   */
+  ObjectEventQueue(int length, QueueOverflowPolicy policy, MemoryArea area)
+  {
+    super(length, policy);
+    area_ = area;
+    elements_ = (Object[])allocate(capacity());
+  }
+
+  @Override
+  Object allocate(int length)
+  {
+    return area_ == null ?
+      new Object[length] : area_.executeInArea(() -> new Object[length]);
+  }
+
+  @Override
+  Object elements()
+  {
+    return elements_;
+  }
+
+  @Override
+  void setElements(Object elements)
+  {
+    elements_ = (Object[])elements;
+  }
+
+  @Override
+  void clear(int index)
+  {
+    elements_[index] = null;
+  }
+
+  /**
+   * Adds {@code value} as the payload of a new release, applying the
+   * overflow policy when the ring is full.
+   *
+   * @param value the payload to add.
+   *
+   * @param merge whether {@code value} is to replace the newest pending
+   *        payload, if any.
+   *
+   * @return the outcome, as described by {@link EventQueue#offer(boolean)}.
+   */
+  synchronized int add(P value, boolean merge)
+  {
+    int outcome = offer(merge);
+    if (outcome <= REPLACED)
+      {
+        elements_[newest()] = value;
+      }
+    return outcome;
+  }
+
+  /**
+   * Gets the oldest payload without removing it.
+   *
+   * @return the oldest payload.
+   *
+   * @throws StaticIllegalStateException when the queue is empty.
+   */
+  @SuppressWarnings("unchecked")
+  synchronized P peek() throws StaticIllegalStateException
+  {
+    return (P)elements_[oldest()];
+  }
+
+  /**
+   * Removes the oldest payload.
+   *
+   * @return the oldest payload.
+   *
+   * @throws StaticIllegalStateException when the queue is empty.
+   */
+  synchronized P poll() throws StaticIllegalStateException
+  {
+    P value = peek();
+    skip(1);
+    return value;
+  }
+
+  /**
+   * Removes up to {@code max} of the oldest payloads and stores them in
+   * {@code dest}, starting at {@code off}, oldest first.
+   *
+   * @param dest the array to receive the payloads.
+   *
+   * @param off the index in {@code dest} of the first payload.
+   *
+   * @param max the maximum number of payloads to take.
+   *
+   * @return the number of payloads stored in {@code dest}.
+   */
+  synchronized int drainTo(P[] dest, int off, int max)
+  {
+    int count = Math.min(max, size());
+    if (count > 0)
+      {
+        int head = oldest();
+        int first = Math.min(count, elements_.length - head);
+        System.arraycopy(elements_, head, dest, off, first);
+        System.arraycopy(elements_, 0, dest, off + first, count - first);
+        skip(count);
+      }
+    return count;
+  }
+}
@@ -151,9 +151,11 @@ public class OneShotTimer extends Timer
   /**
    * This should not be called for application code, except for
    * emulation.  The fire method is reserved for the use of the system.
-   * When {@code this} is enabled, it releases all handlers and then
-   * calls {@link Timer#stop()}.  When distabled, but active, it only
-   * calls {@code Timer.stop()}.  Otherwise it does nothing.
+   * When {@code this} is enabled, it calls {@link Timer#stop()} and
+   * then releases all handlers.  When distabled, but active, it only
+   * calls {@code Timer.stop()}.  Otherwise it does nothing.  The timer
+   * is stopped under its lock, so that a concurrent restart is not
+   * undone.
    *
    * @since RTSJ 2.0 moved here from Timer, since {@code OneShotTimer} and
    * {@code PeriodicTimer} have slightly different semantics.
@@ -161,5 +163,9 @@ public class OneShotTimer extends Timer
   @Override
   public void fire()
   {
+    if (endFiring())
+      {
+        releaseHandlers();
+      }
   }
 }
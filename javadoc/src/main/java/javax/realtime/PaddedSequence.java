@@ -0,0 +1,83 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A sequence counter that occupies a cache line of its own, so that a
+ * producer and a consumer updating their respective positions in a
+ * ring buffer do not invalidate each other's caches.  All fields are
+ * of type {@code long}, so the virtual machine keeps them in
+ * declaration order, leaving the value surrounded by the padding.
+ */
+final class PaddedSequence
+{
+  private static final AtomicLongFieldUpdater<PaddedSequence> VALUE =
+    AtomicLongFieldUpdater.newUpdater(PaddedSequence.class, "value_");
+
+  @SuppressWarnings("unused")
+  private long p1_, p2_, p3_, p4_, p5_, p6_, p7_;
+  private volatile long value_;
+  @SuppressWarnings("unused")
+  private long p9_, p10_, p11_, p12_, p13_, p14_, p15_;
+
+  /**
+   * Creates a sequence starting at {@code initial}.
+   *
+   * @param initial the first value of the sequence.
+   */
+  PaddedSequence(long initial)
+  {
+    value_ = initial;
+  }
+
+  /**
+   * Reads the sequence with acquire semantics.
+   *
+   * @return the current value.
+   */
+  long get()
+  {
+    return value_;
+  }
+
+  /**
+   * Writes the sequence with full fence semantics.
+   *
+   * @param value the new value.
+   */
+  void set(long value)
+  {
+    value_ = value;
+  }
+
+  /**
+   * Writes the sequence with release semantics only.  This is cheaper
+   * than {@link #set(long)}, but a subsequent read of another volatile
+   * variable may be ordered before the write becomes visible.
+   *
+   * @param value the new value.
+   */
+  void setOrdered(long value)
+  {
+    VALUE.lazySet(this, value);
+  }
+
+  /**
+   * Atomically sets the sequence to {@code update} when it currently
+   * holds {@code expect}.
+   *
+   * @param expect the expected value.
+   * @param update the new value.
+   *
+   * @return {@code true} when successful, {@code false} when the actual
+   *         value differed from {@code expect}.
+   */
+  boolean compareAndSet(long expect, long update)
+  {
+    return VALUE.compareAndSet(this, expect, update);
+  }
+}
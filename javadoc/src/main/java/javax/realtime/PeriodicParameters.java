@@ -385,4 +385,13 @@ public class PeriodicParameters extends ReleaseParameters<PeriodicParameters>
   {
     return true;
   }
+
+  /**
+   * Periodic parameters do not queue releases by default.
+   */
+  @Override
+  QueueOverflowPolicy defaultOverflowPolicy()
+  {
+    return QueueOverflowPolicy.DISABLE;
+  }
 }
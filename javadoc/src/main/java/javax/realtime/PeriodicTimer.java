@@ -26,6 +26,26 @@ package javax.realtime;
  * period, the {@code PeriodicTimer} will first fire according to
  * the {@link PhasingPolicy}.
  *
+ * <p> Each fire time is the previous scheduled fire time plus the
+ * interval, never the time at which the previous firing actually
+ * happened, so that the latency of the dispatcher does not accumulate.
+ * When the dispatcher falls behind by a whole interval or more, the
+ * releases that were missed are handled according to the
+ * {@code PhasingPolicy} the timer was started with:
+ * <ul>
+ *   <li>{@code ADJUST_IMMEDIATE} drops them and starts a new period at
+ *       the late firing,</li>
+ *   <li>{@code ADJUST_FORWARD} drops them and keeps the phase,</li>
+ *   <li>{@code ADJUST_BACKWARD} coalesces them into one immediate
+ *       release and keeps the phase, and</li>
+ *   <li>{@code STRICT_PHASING} fires each of them as soon as
+ *       possible.</li>
+ * </ul>
+ * A timer started without a policy places a late first firing like
+ * {@code ADJUST_IMMEDIATE}, but treats missed releases like
+ * {@code ADJUST_BACKWARD}, so that jitter never shifts its phase.
+ * Dropped releases are counted by {@link #getSkippedReleases()}.
+ *
  * <p> Semantics details are described in the {@link Timer} pseudo-code
  * and compact graphic representation of state transitions.
  *
@@ -33,6 +53,22 @@ package javax.realtime;
  */
 public class PeriodicTimer extends Timer
 {
+  /** The interval, associated with the clock of the timer. */
+  private final RelativeTime interval_;
+
+  /** The interval in nanoseconds, or zero for a one shot timer. */
+  private long interval_nanos_;
+
+  /**
+   * The scheduled time of the pending firing, on which the next one is
+   * based.  It differs from the fire time only for a release that
+   * {@code ADJUST_BACKWARD} moved forward to the present.
+   */
+  private long phase_nanos_;
+
+  /** The number of releases dropped in the current activation. */
+  private long skipped_;
+
   /**
    * Creates a timer that executes its fire method periodically.
    *
@@ -81,6 +117,8 @@ public class PeriodicTimer extends Timer
            StaticUnsupportedOperationException
   {
     super(start, handler, dispatcher);
+    interval_ = new RelativeTime((Chronograph)getClock());
+    assignInterval(interval, true);
   }
 
   /**
@@ -166,6 +204,39 @@ public class PeriodicTimer extends Timer
            IllegalAssignmentError
   {
     super(start, clock, handler);
+    interval_ = new RelativeTime((Chronograph)getClock());
+    assignInterval(interval, false);
+  }
+
+  /**
+   * Checks {@code interval} and makes it the interval of {@code this}.
+   *
+   * @param interval the new interval or {@code null} for zero.
+   * @param sameClock whether the clock of {@code interval} must be that
+   *        of {@code this}.
+   */
+  private void assignInterval(RelativeTime interval, boolean sameClock)
+  {
+    if (interval == null)
+      {
+        interval_.set(0L, 0);
+      }
+    else
+      {
+        if (interval.compareToZero() < 0)
+          {
+            throw StaticIllegalArgumentException.get().
+              init("Negative interval");
+          }
+        if (sameClock &&
+            interval.getChronograph() != interval_.getChronograph())
+          {
+            throw StaticIllegalArgumentException.get().
+              init("Interval is not based on the clock of the timer");
+          }
+        interval_.set(interval.getMilliseconds(), interval.getNanoseconds());
+      }
+    interval_nanos_ = saturate(interval_);
   }
 
   /**
@@ -182,7 +253,7 @@ public class PeriodicTimer extends Timer
   @Override
   public Clock getClock() throws StaticIllegalStateException
   {
-    return null;
+    return super.getClock();
   }
 
   /**
@@ -212,9 +283,16 @@ public class PeriodicTimer extends Timer
    *         been <em>destroyed</em>.
    */
   @Override
-  public ReleaseParameters<?> createReleaseParameters()
+  public synchronized ReleaseParameters<?> createReleaseParameters()
   {
-    return null;
+    checkNotDestroyed();
+    if (interval_nanos_ == 0L)
+      {
+        return new AperiodicParameters();
+      }
+    HighResolutionTime<?> start = isActive() ?
+      clockTime(fire_nanos_, null) : scheduledTime();
+    return new PeriodicParameters(start, (RelativeTime)interval_.clone());
   }
 
   /**
@@ -250,7 +328,7 @@ public class PeriodicTimer extends Timer
   public AbsoluteTime getFireTime()
     throws ArithmeticException, StaticIllegalStateException
   {
-    return null;
+    return getFireTime(null);
   }
 
   /**
@@ -295,7 +373,7 @@ public class PeriodicTimer extends Timer
   @Override
   public AbsoluteTime getFireTime(AbsoluteTime dest)
   {
-    return null;
+    return super.getFireTime(dest);
   }
 
   /**
@@ -308,9 +386,10 @@ public class PeriodicTimer extends Timer
    * @throws StaticIllegalStateException when this {@code Timer}
    *         has been <em>destroyed</em>.
    */
-  public RelativeTime getInterval()
+  public synchronized RelativeTime getInterval()
   {
-    return null;
+    checkNotDestroyed();
+    return (RelativeTime)interval_.clone();
   }
 
   /**
@@ -343,7 +422,101 @@ public class PeriodicTimer extends Timer
    *         <em>destroyed</em>.
    */
   @ReturnsThis
-  public PeriodicTimer setInterval(RelativeTime interval) { return this; }
+  public synchronized PeriodicTimer setInterval(RelativeTime interval)
+  {
+    checkNotDestroyed();
+    assignInterval(interval, true);
+    return this;
+  }
+
+  /**
+   * Gets the number of releases that were dropped in the current or
+   * last activation of {@code this} because the dispatcher fell behind
+   * by a whole interval or more, or because an
+   * {@link PhasingPolicy#ADJUST_FORWARD} start was late.  Firings lost
+   * while {@code this} was <em>disabled</em> are not counted.
+   *
+   * @return the number of dropped releases.
+   *
+   * @throws StaticIllegalStateException when this {@code Timer}
+   *         has been <em>destroyed</em>.
+   *
+   * @since RTSJ 2.1
+   */
+  public synchronized long getSkippedReleases()
+  {
+    checkNotDestroyed();
+    return skipped_;
+  }
+
+  /**
+   * Places the first firing of a late start according to
+   * {@code policy}, as described in {@link PhasingPolicy}.
+   */
+  @Override
+  long phase(long scheduled, long now, PhasingPolicy policy)
+  {
+    long interval = interval_nanos_;
+    long late = now - scheduled;
+    phase_nanos_ = scheduled;
+    skipped_ = 0L;
+    if (late <= 0L || interval == 0L)
+      {
+        return scheduled;
+      }
+    switch (policy == null ? PhasingPolicy.ADJUST_IMMEDIATE : policy)
+      {
+        case ADJUST_IMMEDIATE:
+          phase_nanos_ = now;
+          return now;
+        case ADJUST_FORWARD:
+          skipped_ = late / interval + 1;
+          phase_nanos_ = scheduled + skipped_ * interval;
+          return phase_nanos_;
+        case ADJUST_BACKWARD:
+          phase_nanos_ = scheduled + late / interval * interval;
+          return now;
+        default:
+          return scheduled;
+      }
+  }
+
+  /**
+   * Determines the fire time following a firing at {@code phase_nanos_}
+   * and advances {@code phase_nanos_} accordingly.
+   *
+   * @param now the current time.
+   *
+   * @return the next fire time.
+   */
+  private long next(long now)
+  {
+    long interval = interval_nanos_;
+    long next = phase_nanos_ + interval;
+    long behind = now - next;
+    PhasingPolicy policy = getPhasingPolicy();
+    if (behind < 0L || policy == PhasingPolicy.STRICT_PHASING)
+      {
+        phase_nanos_ = next;
+        return next;
+      }
+    long missed = behind / interval + 1;
+    switch (policy == null ? PhasingPolicy.ADJUST_BACKWARD : policy)
+      {
+        case ADJUST_IMMEDIATE:
+          skipped_ += missed;
+          phase_nanos_ = now + interval;
+          return phase_nanos_;
+        case ADJUST_FORWARD:
+          skipped_ += missed;
+          phase_nanos_ = next + missed * interval;
+          return phase_nanos_;
+        default:
+          skipped_ += missed - 1;
+          phase_nanos_ = next + (missed - 1) * interval;
+          return now;
+      }
+  }
 
   /**
    * This should not be called for application code, except for
@@ -359,5 +532,30 @@ public class PeriodicTimer extends Timer
   @Override
   public void fire()
   {
+    if (endFiring())
+      {
+        releaseHandlers();
+      }
+  }
+
+  /**
+   * Moves {@code this} to its next fire time, or stops it when it has no
+   * interval.  The dispatching thread calls this under the same lock as
+   * its check of the activation, so the next fire time is never taken
+   * from the phase of an activation that was restarted meanwhile.
+   */
+  @Override
+  boolean advance()
+  {
+    boolean release = isRunning();
+    if (interval_nanos_ == 0L)
+      {
+        stop();
+      }
+    else
+      {
+        getRegistered().reschedule(this, next(System.nanoTime()));
+      }
+    return release;
   }
 }
@@ -0,0 +1,202 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The system realtime clock, as returned by
+ * {@link Clock#getRealtimeClock()} unless replaced.  It reads
+ * {@code System.nanoTime()}, which is monotonic and, on POSIX systems,
+ * based on {@code CLOCK_MONOTONIC}, so its zero lies at some arbitrary
+ * point in the past.  The distance of that point from the Epoch is
+ * captured once, when the clock is created, and reported by
+ * {@link #getEpochOffset(RelativeTime)}.
+ *
+ * <p> Both precisions are measured once as well, so that querying them
+ * neither takes time nor allocates when a destination is given.
+ */
+final class RealtimeClock extends Clock
+{
+  /** The number of successive readings taken to find the query precision. */
+  private static final int _QUERY_SAMPLES_ = 1000;
+
+  /** The number of shortest possible waits taken to find the drive precision. */
+  private static final int _DRIVE_SAMPLES_ = 8;
+
+  /** The singleton instance. */
+  static final RealtimeClock INSTANCE = new RealtimeClock();
+
+  private final long epoch_offset_;
+  private final long query_precision_;
+  private final long drive_precision_;
+
+  private RealtimeClock()
+  {
+    epoch_offset_ = measureEpochOffset();
+    query_precision_ = measureQueryPrecision();
+    drive_precision_ = measureDrivePrecision();
+  }
+
+  /**
+   * Determines when {@code System.nanoTime()} was zero in nanoseconds
+   * since the Epoch.  The wall clock is read between two readings of
+   * the monotonic one, and the pair that lies closest together is used.
+   */
+  private static long measureEpochOffset()
+  {
+    long best = Long.MAX_VALUE;
+    long offset = 0L;
+    for (int i = 0; i < 3; i++)
+      {
+        long before = System.nanoTime();
+        long wall = System.currentTimeMillis() *
+          HighResolutionTime.NANOS_PER_MILLI;
+        long after = System.nanoTime();
+        if (after - before < best)
+          {
+            best = after - before;
+            offset = wall - (before + (after - before) / 2);
+          }
+      }
+    return offset;
+  }
+
+  /**
+   * Determines the smallest nonzero difference between two successive
+   * readings of {@code System.nanoTime()}.
+   */
+  private static long measureQueryPrecision()
+  {
+    long precision = Long.MAX_VALUE;
+    long last = System.nanoTime();
+    for (int i = 0; i < _QUERY_SAMPLES_; i++)
+      {
+        long now = System.nanoTime();
+        while (now == last)
+          {
+            now = System.nanoTime();
+          }
+        precision = Math.min(precision, now - last);
+        last = now;
+      }
+    return precision;
+  }
+
+  /**
+   * Determines the shortest time that a thread can wait for, which is
+   * the granularity with which this clock can trigger events.
+   */
+  private static long measureDrivePrecision()
+  {
+    long precision = Long.MAX_VALUE;
+    for (int i = 0; i < _DRIVE_SAMPLES_; i++)
+      {
+        long before = System.nanoTime();
+        LockSupport.parkNanos(1L);
+        precision = Math.min(precision, System.nanoTime() - before);
+      }
+    return Math.max(precision, 1L);
+  }
+
+  /**
+   * Stores {@code nanos} in {@code dest}, or in a new object when
+   * {@code dest} is {@code null}, associated with {@code this}.
+   */
+  private RelativeTime relative(long nanos, RelativeTime dest)
+  {
+    RelativeTime result = dest == null ? new RelativeTime((Chronograph)this) : dest;
+    result.setChronograph(this);
+    result.assignNanos(nanos);
+    return result;
+  }
+
+  /**
+   * Gets the current value of {@code System.nanoTime()}.  Nothing is
+   * allocated when {@code dest} is not {@code null}.
+   *
+   * @param dest {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public AbsoluteTime getTime(AbsoluteTime dest)
+  {
+    AbsoluteTime result = dest == null ? new AbsoluteTime((Chronograph)this) : dest;
+    result.setChronograph(this);
+    result.assignNanos(System.nanoTime());
+    return result;
+  }
+
+  /**
+   * Gets the time of zero on {@code this} clock relative to the Epoch,
+   * as captured when the clock was created.  The result is associated
+   * with {@code this}, since a universal clock may not be available.
+   *
+   * @param dest {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public RelativeTime getEpochOffset(RelativeTime dest)
+  {
+    return relative(epoch_offset_, dest);
+  }
+
+  /**
+   * Gets the smallest nonzero difference between two readings of
+   * {@code this} clock measured at startup.
+   *
+   * @param dest {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public RelativeTime getQueryPrecision(RelativeTime dest)
+  {
+    return relative(query_precision_, dest);
+  }
+
+  /**
+   * Gets the shortest wait measured at startup.
+   *
+   * @param dest {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public RelativeTime getDrivePrecision(RelativeTime dest)
+  {
+    return relative(drive_precision_, dest);
+  }
+
+  /**
+   * The resolution of the system realtime clock cannot be changed.
+   *
+   * @throws StaticUnsupportedOperationException always.
+   */
+  @Deprecated
+  @Override
+  public void setResolution(RelativeTime resolution)
+  {
+    throw StaticUnsupportedOperationException.get().
+      init("The resolution of the realtime clock is fixed");
+  }
+
+  /**
+   * Gets the query precision of {@code this} clock, which is what its
+   * resolution used to denote.
+   *
+   * @return a new {@link RelativeTime} holding the query precision.
+   *
+   * @deprecated since RTSJ 2.0; use {@link #getQueryPrecision()}.
+   */
+  @Deprecated
+  @Override
+  public RelativeTime getResolution()
+  {
+    return getQueryPrecision(null);
+  }
+}
@@ -34,6 +34,13 @@ public class RealtimeThread
   extends Thread
   implements BoundSchedulable
 {
+  /**
+   * The longest wait that {@link #spin(HighResolutionTime)} measures
+   * with {@code System.nanoTime()}, half of its range, which is
+   * still well over a century.
+   */
+  private static final long _FOREVER_ = Long.MAX_VALUE >> 1;
+
   /**
    * Gets a reference to the current instance of {@code RealtimeThread}.
    *
@@ -220,7 +227,7 @@ public class RealtimeThread
   {
   }*/
 
-  /*
+  /**
    * Similar to {@link #sleep(HighResolutionTime)} except it performs a
    * busy wait by polling on the {@link Chronograph} associated with
    * {@code time} until {@code time} has been reached.  Note that
@@ -229,6 +236,11 @@ public class RealtimeThread
    * application cannot assume that the associated {@code Chronograph}
    * will be polled as quickly as possible.
    *
+   * <p> When the chronograph is the realtime clock, or {@code time} is
+   * relative, a wait longer than the spin threshold of the current
+   * {@link ConfigurationParameters} parks the caller until only the
+   * threshold remains and spins for the rest.
+   *
    * @param time An absolute or relative time at which to stop spinning.
    *
    * @throws InterruptedException when the thread is interrupted by
@@ -236,22 +248,73 @@ public class RealtimeThread
    *         {@link AsynchronouslyInterruptedException#fire()} during
    *         the time between calling this method and returning from it.
    *
-   * @throws ClassCastException when the current execution context is
-   *         not an instance of {@link Schedulable}.
-   *
    * @throws StaticIllegalArgumentException when {@code time} is {@code null},
    *         or when {@code time} is a relative time less than zero.
    *
-   * @since RTSJ 2.x (save for later release)
-   *//*
+   * @since RTSJ 2.1
+   */
   public static void spin(HighResolutionTime<?> time)
     throws InterruptedException,
-           ClassCastException,
            StaticIllegalArgumentException
   {
-  }*/
+    if (time == null)
+      {
+        throw StaticIllegalArgumentException.get().init("time is null");
+      }
+    if (time instanceof RelativeTime)
+      {
+        if (((RelativeTime)time).compareToZero() < 0)
+          {
+            throw StaticIllegalArgumentException.get().
+              init("Negative relative time");
+          }
+        long nanos = time.isPacked() ?
+          Math.min(time.packedNanos(), _FOREVER_) : _FOREVER_;
+        SpinWait.until(System.nanoTime() + nanos, spinThreshold());
+      }
+    else if (time.getChronograph() == RealtimeClock.INSTANCE)
+      {
+        if (time.isPacked())
+          {
+            SpinWait.until(time.packedNanos(), spinThreshold());
+          }
+        else if (time.signum() > 0)
+          {
+            SpinWait.until(System.nanoTime() + _FOREVER_, spinThreshold());
+          }
+      }
+    else
+      {
+        // Another chronograph cannot be mapped to the system clock to
+        // park, so just poll it.
+        Chronograph chronograph = time.getChronograph();
+        AbsoluteTime now = chronograph.getTime(null);
+        while (now.compareValue(time) < 0)
+          {
+            if (Thread.interrupted())
+              {
+                throw new InterruptedException();
+              }
+            SpinWait.pause();
+            chronograph.getTime(now);
+          }
+      }
+  }
 
-  /*
+  /**
+   * Gets the spin threshold configured for the current thread, or the
+   * calibrated default for a conventional Java thread.
+   */
+  private static long spinThreshold()
+  {
+    Thread current = Thread.currentThread();
+    ConfigurationParameters config = current instanceof RealtimeThread ?
+      ((RealtimeThread)current).getConfigurationParameters() : null;
+    return config != null ?
+      config.getSpinThreshold() : SpinWait.DEFAULT_THRESHOLD;
+  }
+
+  /**
    * The same as calling {@link #spin(HighResolutionTime)} with a relative
    * time to the default realtime clock, zero milliseconds, and {@code nanos}
    * nanoseconds, except no relative time object is necessary.
@@ -263,20 +326,22 @@ public class RealtimeThread
    *         {@link AsynchronouslyInterruptedException#fire()} during
    *         the time between calling this method and returning from it.
    *
-   * @throws ClassCastException when the current execution context is
-   *         not an instance of {@link Schedulable}.
-   *
    * @throws StaticIllegalArgumentException when {@code nanos} is less
    *         than zero.
    *
-   * @since RTSJ 2.x (save for later release)
-   *//*
+   * @since RTSJ 2.1
+   */
   public static void spin(int nanos)
     throws InterruptedException,
-           ClassCastException,
            StaticIllegalArgumentException
   {
-  }*/
+    if (nanos < 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Negative spin time " + nanos);
+      }
+    SpinWait.until(System.nanoTime() + nanos, spinThreshold());
+  }
 
   /**
    * Causes the current realtime thread to delay until the next release.
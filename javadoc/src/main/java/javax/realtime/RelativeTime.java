@@ -26,6 +26,12 @@ package javax.realtime;
  */
 public class RelativeTime extends HighResolutionTime<RelativeTime>
 {
+  /** The largest magnitude of a long that a double holds exactly. */
+  private static final long _EXACT_NANOS_ = 1L << 53;
+
+  /** The magnitude at which a double no longer fits in a long. */
+  private static final double _LONG_RANGE_ = 0x1p63;
+
   /**
    * Constructs a {@code RelativeTime} object representing an
    * interval based on the parameter {@code millis} plus the
@@ -279,7 +285,7 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime add(long millis, int nanos)
    throws ArithmeticException
   {
-    return null;
+    return add(millis, nanos, null);
   }
 
   /**
@@ -312,7 +318,9 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime add(long millis, int nanos, RelativeTime dest)
     throws ArithmeticException
   {
-    return dest;
+    RelativeTime result = dest == null ? new RelativeTime(this) : dest;
+    addTo(millis, nanos, result);
+    return result;
   }
 
   /**
@@ -345,7 +353,7 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime add(RelativeTime time)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return null;
+    return add(time, null);
   }
 
   /**
@@ -386,7 +394,10 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime add(RelativeTime time, RelativeTime dest)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return dest;
+    checkCompatible(time);
+    RelativeTime result = dest == null ? new RelativeTime(this) : dest;
+    addTo(time, result);
+    return result;
   }
 
   /**
@@ -419,7 +430,7 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime subtract(RelativeTime time)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return null;
+    return subtract(time, null);
   }
 
   /**
@@ -463,7 +474,10 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
   public RelativeTime subtract(RelativeTime time, RelativeTime dest)
     throws StaticIllegalArgumentException, ArithmeticException
   {
-    return dest;
+    checkCompatible(time);
+    RelativeTime result = dest == null ? new RelativeTime(this) : dest;
+    subtractTo(time, result);
+    return result;
   }
 
   /**
@@ -477,7 +491,10 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    *
    * @since RTSJ 2.0
    */
-  public RelativeTime scale(int factor) { return null; }
+  public RelativeTime scale(int factor)
+  {
+    return scale(factor, null);
+  }
 
   /**
    * Sets {@code time} to the value of {@code this} time multiplied
@@ -490,7 +507,110 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    *
    * @since RTSJ 2.0
    */
-  public RelativeTime scale(int factor, RelativeTime time) { return null; }
+  public RelativeTime scale(int factor, RelativeTime time)
+  {
+    RelativeTime result = time == null ? new RelativeTime(this) : time;
+    if (isPacked())
+      {
+        long total = packedNanos();
+        long product = total * factor;
+        if (!overflows(total, factor, product))
+          {
+            result.setChronograph(getChronograph());
+            result.assignNanos(product);
+            return result;
+          }
+      }
+    long millis = getMilliseconds();
+    long product = millis * factor;
+    if (overflows(millis, factor, product))
+      {
+        throw overflow();
+      }
+    result.setChronograph(getChronograph());
+    result.assignOrOverflow(product, (long)getNanoseconds() * factor);
+    return result;
+  }
+
+  /**
+   * Determines whether {@code product} is not the exact product of
+   * {@code value} and {@code factor}.
+   */
+  private static boolean overflows(long value, int factor, long product)
+  {
+    return factor != 0 &&
+      (product / factor != value || (factor == -1 && value == Long.MIN_VALUE));
+  }
+
+  /**
+   * Multiplies each of {@code count} relative times, given in
+   * nanoseconds, by {@code factor}, which is what {@link #scale(int)}
+   * does for a single time.  The loop is free of branches and
+   * divisions, so that it can be vectorized.  {@code src} and
+   * {@code dest} may be the same array.
+   *
+   * @param factor Value by which to multiply each time.
+   *
+   * @param src The times to scale, in nanoseconds.
+   *
+   * @param srcOff The index in {@code src} of the first time.
+   *
+   * @param dest The array to receive the scaled times.
+   *
+   * @param destOff The index in {@code dest} of the first result.
+   *
+   * @param count The number of times to scale.
+   *
+   * @throws StaticIllegalArgumentException when either range lies
+   *         outside of its array.
+   *
+   * @throws ArithmeticException when any of the results does not fit
+   *         in a {@code long}, in which case the contents of the
+   *         destination range are undefined.
+   *
+   * @since RTSJ 2.1
+   */
+  public static void scale(int factor,
+                           long[] src, int srcOff,
+                           long[] dest, int destOff,
+                           int count)
+    throws StaticIllegalArgumentException, ArithmeticException
+  {
+    checkRanges(src, srcOff, dest, destOff, count);
+    long outside = 0L;
+    if (factor >= -1 && factor <= 1)
+      {
+        // Only negating Long.MIN_VALUE overflows, which leaves it negative.
+        long negating = factor >> 31;
+        for (int i = 0; i < count; i++)
+          {
+            long value = src[srcOff + i];
+            long product = value * factor;
+            outside |= value & product & negating;
+            dest[destOff + i] = product;
+          }
+      }
+    else
+      {
+        // The values whose product fits; division rounds towards zero,
+        // which keeps both bounds inside.
+        long low = factor > 0 ?
+          Long.MIN_VALUE / factor : Long.MAX_VALUE / factor;
+        long high = factor > 0 ?
+          Long.MAX_VALUE / factor : Long.MIN_VALUE / factor;
+        for (int i = 0; i < count; i++)
+          {
+            long value = src[srcOff + i];
+            // Negative exactly when value lies outside [low, high].
+            outside |= (high - value) | (value - low);
+            dest[destOff + i] = value * factor;
+          }
+      }
+    if (outside < 0)
+      {
+        throw overflow();
+      }
+  }
 
   /**
    * Divide the current time by an integral factor.
@@ -509,7 +629,71 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    */
   public RelativeTime apportion(int factor, RelativeTime destination)
   {
-    return null;
+    if (factor <= 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("factor must be greater than zero");
+      }
+    RelativeTime result =
+      destination == null ? new RelativeTime(this) : destination;
+    result.setChronograph(getChronograph());
+    if (isPacked())
+      {
+        result.assignNanos(packedNanos() / factor);
+      }
+    else
+      {
+        // Divide the milliseconds first and carry the remainder, which
+        // is less than factor, into the nanoseconds, truncating the
+        // whole value toward zero just like the packed case.
+        long millis = getMilliseconds();
+        long carry = millis % factor;
+        result.assign(millis / factor,
+                      (carry * NANOS_PER_MILLI + getNanoseconds()) / factor);
+      }
+    return result;
+  }
+
+  /**
+   * Divides each of {@code count} relative times, given in nanoseconds,
+   * by {@code factor}, truncating toward zero as
+   * {@link #apportion(int)} does for a single time.  {@code src} and
+   * {@code dest} may be the same array.
+   *
+   * @param factor Value by which to divide each time, which must be
+   *        greater than zero.
+   *
+   * @param src The times to divide, in nanoseconds.
+   *
+   * @param srcOff The index in {@code src} of the first time.
+   *
+   * @param dest The array to receive the divided times.
+   *
+   * @param destOff The index in {@code dest} of the first result.
+   *
+   * @param count The number of times to divide.
+   *
+   * @throws StaticIllegalArgumentException when {@code factor} is
+   *         zero or negative, or either range lies outside of its array.
+   *
+   * @since RTSJ 2.1
+   */
+  public static void apportion(int factor,
+                               long[] src, int srcOff,
+                               long[] dest, int destOff,
+                               int count)
+    throws StaticIllegalArgumentException
+  {
+    if (factor <= 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("factor must be greater than zero");
+      }
+    checkRanges(src, srcOff, dest, destOff, count);
+    for (int i = 0; i < count; i++)
+      {
+        dest[destOff + i] = src[srcOff + i] / factor;
+      }
   }
 
   /**
@@ -541,8 +725,108 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    * @since RTSJ 2.0
    */
   public RelativeTime multiply(float factor, RelativeTime dest)
+    throws StaticIllegalArgumentException, ArithmeticException
   {
-    return null;
+    if (Float.isNaN(factor) || Float.isInfinite(factor))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("factor is not finite");
+      }
+    RelativeTime result = dest == null ? new RelativeTime(this) : dest;
+    if (isPacked() && Math.abs(packedNanos()) <= _EXACT_NANOS_)
+      {
+        // The value is exact as a double, so the product is rounded once.
+        double product = packedNanos() * (double)factor;
+        if (Math.abs(product) < _LONG_RANGE_)
+          {
+            result.setChronograph(getChronograph());
+            result.assignNanos(Math.round(product));
+            return result;
+          }
+      }
+    double scaled = getMilliseconds() * (double)factor;
+    double fraction = getNanoseconds() * (double)factor;
+    double millis = scaled + fraction / NANOS_PER_MILLI;
+    if (!(Math.abs(millis) < _LONG_RANGE_))
+      {
+        throw overflow();
+      }
+    long whole = (long)millis;
+    double nanos = (scaled - whole) * NANOS_PER_MILLI + fraction;
+    result.setChronograph(getChronograph());
+    result.assignOrOverflow(whole, Math.round(nanos));
+    return result;
+  }
+
+  /**
+   * Multiplies each of {@code count} relative times, given in
+   * nanoseconds, by {@code factor}, rounding to the nearest nanosecond
+   * as {@link #multiply(float, RelativeTime)} does for a single time
+   * of up to 2<sup>53</sup> nanoseconds.  {@code src} and {@code dest}
+   * may be the same array.
+   *
+   * @param factor the factor by which to multiply.
+   *
+   * @param src The times to multiply, in nanoseconds.
+   *
+   * @param srcOff The index in {@code src} of the first time.
+   *
+   * @param dest The array to receive the products.
+   *
+   * @param destOff The index in {@code dest} of the first result.
+   *
+   * @param count The number of times to multiply.
+   *
+   * @throws StaticIllegalArgumentException when {@code factor} is not
+   *         finite, or either range lies outside of its array.
+   *
+   * @throws ArithmeticException when any of the results does not fit
+   *         in a {@code long}, in which case the contents of the
+   *         destination range are undefined.
+   *
+   * @since RTSJ 2.1
+   */
+  public static void multiply(float factor,
+                              long[] src, int srcOff,
+                              long[] dest, int destOff,
+                              int count)
+    throws StaticIllegalArgumentException, ArithmeticException
+  {
+    if (Float.isNaN(factor) || Float.isInfinite(factor))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("factor is not finite");
+      }
+    checkRanges(src, srcOff, dest, destOff, count);
+    double scale = factor;
+    double largest = 0.0;
+    for (int i = 0; i < count; i++)
+      {
+        double product = src[srcOff + i] * scale;
+        largest = Math.max(largest, Math.abs(product));
+        dest[destOff + i] = Math.round(product);
+      }
+    if (!(largest < _LONG_RANGE_))
+      {
+        throw overflow();
+      }
+  }
+
+  /**
+   * Checks the arguments of the bulk operations.
+   */
+  private static void checkRanges(long[] src, int srcOff,
+                                  long[] dest, int destOff,
+                                  int count)
+    throws StaticIllegalArgumentException
+  {
+    if (src == null || dest == null || count < 0 ||
+        srcOff < 0 || srcOff > src.length - count ||
+        destOff < 0 || destOff > dest.length - count)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid source or destination range");
+      }
   }
 
   /**
@@ -560,7 +844,23 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    */
   public RelativeTime negate(RelativeTime destination)
   {
-    return destination;
+    RelativeTime result;
+    if (isPacked() && packedNanos() != Long.MIN_VALUE)
+      {
+        result = destination == null ? new RelativeTime(this) : destination;
+        result.setChronograph(getChronograph());
+        result.assignNanos(-packedNanos());
+        return result;
+      }
+    long millis = getMilliseconds();
+    if (millis == Long.MIN_VALUE)
+      {
+        throw overflow();
+      }
+    result = destination == null ? new RelativeTime(this) : destination;
+    result.setChronograph(getChronograph());
+    result.assign(-millis, -getNanoseconds());
+    return result;
   }
 
   /**
@@ -590,7 +890,10 @@ public class RelativeTime extends HighResolutionTime<RelativeTime>
    *
    * @since RTSJ 2.0
    */
-  public int compareToZero() { return 0; }
+  public int compareToZero()
+  {
+    return signum();
+  }
 
   /**
    *
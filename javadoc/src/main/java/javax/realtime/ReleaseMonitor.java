@@ -0,0 +1,504 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Checks each release of an {@link AsyncBaseEventHandler} against the
+ * cost and deadline of its {@link ReleaseParameters}, and releases the
+ * cost overrun handler or deadline miss handler of the parameters when
+ * a release exceeds them.  There is no thread that watches running
+ * releases; both limits are checked in the loop that runs the releases
+ * of the handler, when a release completes, so a release that never
+ * completes is never reported.  That loop is the path on which the
+ * release runner of the handler, or the thread of a bound handler, runs
+ * the releases, so the checks apply to every handler.
+ *
+ * <p> The consumption of a release is measured as the time elapsed
+ * from its start to its completion, read from {@code System.nanoTime()}
+ * directly.  The {@link RealtimeClock} counts the same time with an
+ * offset, but reading it would need a time object.  This is an upper
+ * bound of the CPU time of the release, so a release that is preempted
+ * for long may be reported as an overrun, but an overrun is never
+ * missed.  Measuring CPU time instead would cost a system call
+ * per time stamp.  Time stamps are only taken for the limits that are
+ * monitored, i.e., that have a handler and, for the cost, are not zero
+ * or {@link ReleaseParameters#DISABLE_MONITORING}.  The parameters are
+ * read for each release, so changes take effect with the next one.
+ *
+ * <p> The arrival times of pending releases are kept in a ring of the
+ * initial queue length of the parameters, which never grows.  When it
+ * is full, a further arrival is rejected, dropped or merged according
+ * to the {@link QueueOverflowPolicy} of the parameters; under
+ * {@link QueueOverflowPolicy#SAVE}, it is released without its arrival
+ * time, so its deadline is not checked.
+ *
+ * <p> For {@link SporadicParameters}, the monitor also enforces the
+ * minimum interarrival time.  Each arrival is compared with the release
+ * time of the previous one when it is fired, in constant time and
+ * without allocation, and is then rejected, dropped, merged or delayed
+ * according to the {@link MinimumInterarrivalPolicy}.  Only delaying a
+ * release takes a lock, since it arms a timer anyway.  A delayed
+ * release is not counted until its release time, when a timer of the
+ * monitor counts it, so a storm of fires cannot make the handler
+ * consume more than its share of the processor, and no thread waits for
+ * it.  As the policy requires, the deadline of a delayed release is
+ * still measured from its arrival.
+ */
+final class ReleaseMonitor
+{
+  /** The outcome of a release that is counted now. */
+  static final int COUNTED = 0;
+
+  /** The outcome of a release that is counted at its release time. */
+  static final int DELAYED = 1;
+
+  /** The outcome of a release that overflowed and was dropped. */
+  static final int DROPPED = 2;
+
+  /** The outcome of a release that overflowed and must be rejected. */
+  static final int FULL = 3;
+
+  /** The message of the exception thrown when the ring is full. */
+  static final String FULL_MESSAGE = "Arrival time queue is full";
+
+  private final AsyncBaseEventHandler handler_;
+  private final ReleaseParameters<?> release_;
+
+  /**
+   * The arrival times of the pending releases, in a ring indexed by the
+   * sequence number of each arrival, whose length is the initial queue
+   * length of the parameters, but at least one.  Each slot is tagged
+   * with one more than the sequence number of its time, or zero while it
+   * is written, so that a time that was not recorded or is overwritten
+   * is recognized and its release is not checked.  Times are only
+   * recorded while the deadline or the minimum interarrival time is
+   * monitored, but the sequence numbers are always taken, so that the
+   * ring knows when it is full.
+   */
+  private final AtomicLongArray arrival_times_;
+  private final AtomicLongArray arrival_tags_;
+
+  /** The sequence number of the next arrival. */
+  private final AtomicLong arrived_ = new AtomicLong();
+
+  /** The sequence number of the oldest arrival not yet started. */
+  private final AtomicLong started_ = new AtomicLong();
+
+  /** The timer that counts the delayed releases, only for sporadic ones. */
+  private final Deferral deferral_;
+
+  /** The delay of the next delayed release, used to restart the timer. */
+  private final RelativeTime delay_;
+
+  /**
+   * The release time of the last arrival, which delayed arrivals may
+   * place in the future.  Only an arrival that is not delayed moves it
+   * without the lock on {@code deferral_}.
+   */
+  private final AtomicLong last_release_ =
+    new AtomicLong(System.nanoTime() - (Long.MAX_VALUE >> 1));
+
+  /*
+   * The number of delayed releases, which are not counted yet, and the
+   * release time of the oldest one.  The others follow it at the
+   * minimum interarrival time.  Both are guarded by the lock on
+   * deferral_.
+   */
+  private volatile int delayed_;
+  private long next_delayed_;
+
+  /*
+   * The state of the running release, only used by the thread running
+   * the handler, whose releases never overlap.
+   */
+  private long deadline_;
+  private boolean deadline_monitored_;
+  private long cost_;
+  private long start_;
+
+  /**
+   * Creates a monitor for the releases of one handler.
+   *
+   * @param handler the handler whose releases are monitored.
+   *
+   * @param release the parameters of the handler.
+   */
+  ReleaseMonitor(AsyncBaseEventHandler handler, ReleaseParameters<?> release)
+  {
+    handler_ = handler;
+    release_ = release;
+    int length = Math.max(1, release.getInitialQueueLength());
+    arrival_times_ = new AtomicLongArray(length);
+    arrival_tags_ = new AtomicLongArray(length);
+    boolean sporadic = release instanceof SporadicParameters;
+    deferral_ = sporadic ? new Deferral() : null;
+    delay_ = sporadic ? new RelativeTime() : null;
+  }
+
+  /**
+   * Gets the parameters whose limits are checked.
+   *
+   * @return the release parameters.
+   */
+  ReleaseParameters<?> getReleaseParameters()
+  {
+    return release_;
+  }
+
+  /**
+   * Checks an arrival against the minimum interarrival time before it
+   * is queued.  An arrival too close to the release time of the previous
+   * one is handled according to the {@link MinimumInterarrivalPolicy} of
+   * the parameters; when it is saved, its release is delayed by
+   * {@link #released(boolean)}.
+   *
+   * @param pending whether a counted release of the handler is pending.
+   *
+   * @return {@code null} when the arrival is to be released, otherwise
+   *         {@link MinimumInterarrivalPolicy#IGNORE} when it is to be
+   *         dropped or {@link MinimumInterarrivalPolicy#REPLACE} when it
+   *         is to replace the payload of the newest pending release.
+   *
+   * @throws MITViolationException when the arrival violates the minimum
+   *         interarrival time and the policy is
+   *         {@link MinimumInterarrivalPolicy#EXCEPT}.
+   */
+  MinimumInterarrivalPolicy arrive(boolean pending)
+    throws MITViolationException
+  {
+    long minimum = release_.minimumInterarrival();
+    if (minimum < 0 || System.nanoTime() - last_release_.get() >= minimum)
+      {
+        return null;
+      }
+    switch (((SporadicParameters)release_).getMinimumInterarrivalPolicy())
+      {
+      case EXCEPT:
+        throw MITViolationException.get().
+          init("Arrival within minimum interarrival time");
+      case IGNORE:
+        return MinimumInterarrivalPolicy.IGNORE;
+      case REPLACE:
+        // without a pending release to replace, the arrival is ignored
+        return pending || delayed_ > 0 ?
+          MinimumInterarrivalPolicy.REPLACE : MinimumInterarrivalPolicy.IGNORE;
+      default:
+        return null;
+      }
+  }
+
+  /**
+   * Records the arrival of a new release before it is counted.  When
+   * the ring of arrival times is full, the event queue overflow policy
+   * of the parameters decides, except that the arrival is saved without
+   * its time rather than growing the ring.  The release time of a saved
+   * arrival is its arrival time, unless that violates the minimum
+   * interarrival time, in which case the release is delayed until the
+   * minimum interarrival time after the previous release.  A delayed
+   * release is counted by the timer of this monitor at its release time.
+   * Only delaying a release takes a lock.
+   *
+   * @param overflow whether to apply the overflow policy, which is not
+   *        the case when an event queue of payloads has done so already.
+   *
+   * @return {@link #COUNTED} when the release is to be counted now,
+   *         {@link #DELAYED} when it is counted later, {@link #DROPPED}
+   *         when it is ignored or replaces the newest pending one, and
+   *         {@link #FULL} when it is to be rejected with an
+   *         {@link ArrivalTimeQueueOverflowException}.
+   */
+  int released(boolean overflow)
+  {
+    long minimum = release_.minimumInterarrival();
+    boolean monitored = minimum >= 0 || release_.monitoredDeadline() >= 0;
+    long now = monitored ? System.nanoTime() : 0L;
+    int outcome = record(now, monitored, overflow);
+    if (outcome != COUNTED || minimum < 0)
+      {
+        return outcome;
+      }
+    while (true)
+      {
+        long last = last_release_.get();
+        if (now - last >= minimum)
+          {
+            if (last_release_.compareAndSet(last, now))
+              {
+                return COUNTED;
+              }
+          }
+        else
+          {
+            synchronized (deferral_)
+              {
+                long release = last + minimum;
+                if (last_release_.compareAndSet(last, release))
+                  {
+                    if (delayed_++ == 0)
+                      {
+                        next_delayed_ = release;
+                        schedule(release - now);
+                      }
+                    return DELAYED;
+                  }
+              }
+          }
+      }
+  }
+
+  /**
+   * Takes the sequence number of a new arrival and stores its time,
+   * unless the ring is full.
+   *
+   * @param now the arrival time.
+   *
+   * @param monitored whether {@code now} is to be stored.
+   *
+   * @param overflow whether to apply the overflow policy.
+   *
+   * @return the outcome, as described by {@link #released(boolean)},
+   *         but never {@link #DELAYED}.
+   */
+  private int record(long now, boolean monitored, boolean overflow)
+  {
+    int length = arrival_times_.length();
+    QueueOverflowPolicy policy = overflow ?
+      release_.getEventQueueOverflowPolicy() : QueueOverflowPolicy.SAVE;
+    while (true)
+      {
+        long sequence = arrived_.get();
+        boolean full = sequence - started_.get() >= length;
+        if (!full ||
+            policy == QueueOverflowPolicy.SAVE ||
+            policy == QueueOverflowPolicy.DISABLE)
+          {
+            if (arrived_.compareAndSet(sequence, sequence + 1))
+              {
+                if (!full && monitored)
+                  {
+                    store(sequence, now);
+                  }
+                return COUNTED;
+              }
+          }
+        else
+          {
+            switch (policy)
+              {
+              case EXCEPT:
+                return FULL;
+              case REPLACE:
+                if (monitored)
+                  {
+                    store(sequence - 1, now);
+                  }
+                return DROPPED;
+              default:
+                return DROPPED;
+              }
+          }
+      }
+  }
+
+  /**
+   * Stores the arrival time of the arrival with the number
+   * {@code sequence}.
+   */
+  private void store(long sequence, long now)
+  {
+    int slot = (int)(sequence % arrival_times_.length());
+    arrival_tags_.set(slot, 0L);
+    arrival_times_.set(slot, now);
+    arrival_tags_.set(slot, sequence + 1);
+  }
+
+  /**
+   * Arms the timer for the next delayed release.  The caller holds the
+   * lock on {@code deferral_}.
+   *
+   * @param delay the time until its release in nanoseconds.
+   */
+  private void schedule(long delay)
+  {
+    delay_.assignNanos(Math.max(delay, 0L));
+    deferral_.restart(delay_);
+  }
+
+  /**
+   * Counts the delayed releases whose release time has come, called by
+   * the timer of this monitor.
+   */
+  private void due()
+  {
+    int count = 0;
+    synchronized (deferral_)
+      {
+        long now = System.nanoTime();
+        long minimum = Math.max(0L, release_.minimumInterarrival());
+        while (delayed_ > 0 && next_delayed_ - now <= 0)
+          {
+            delayed_--;
+            next_delayed_ += minimum;
+            count++;
+          }
+        if (delayed_ > 0)
+          {
+            schedule(next_delayed_ - now);
+          }
+      }
+    for (int i = 0; i < count; i++)
+      {
+        handler_.releaseDelayed();
+      }
+  }
+
+  /**
+   * Records the start of handling the oldest pending release.  Releases
+   * are started in the order they arrived, so its arrival time is the
+   * oldest one not yet started or discarded.  Its deadline is measured
+   * from that time, also when its release was delayed.
+   */
+  void started()
+  {
+    long deadline = release_.monitoredDeadline();
+    long sequence = take(1);
+    boolean recorded = false;
+    long arrival = 0L;
+    if (sequence >= 0 && deadline >= 0)
+      {
+        int slot = (int)(sequence % arrival_times_.length());
+        long tag = arrival_tags_.get(slot);
+        arrival = arrival_times_.get(slot);
+        recorded = tag == sequence + 1 && arrival_tags_.get(slot) == tag;
+      }
+    deadline_monitored_ = recorded;
+    deadline_ = arrival + deadline;
+    cost_ = release_.monitoredCost();
+    if (cost_ >= 0)
+      {
+        start_ = System.nanoTime();
+      }
+  }
+
+  /**
+   * Discards the arrival times of releases that were handled without
+   * being started, e.g., by clearing the fire count.
+   *
+   * @param count the number of releases.
+   */
+  void discarded(int count)
+  {
+    take(count);
+  }
+
+  /**
+   * Takes the sequence numbers of up to {@code count} of the oldest
+   * arrivals, but none that have not arrived, e.g., before the monitor
+   * replaced that of earlier parameters.
+   *
+   * @return the sequence number of the last arrival taken, or {@code -1}
+   *         when none was taken.
+   */
+  private long take(int count)
+  {
+    while (true)
+      {
+        long first = started_.get();
+        long next = Math.min(first + count, arrived_.get());
+        if (next <= first)
+          {
+            return -1L;
+          }
+        if (started_.compareAndSet(first, next))
+          {
+            return next - 1;
+          }
+      }
+  }
+
+  /**
+   * Checks the running release against its limits when it completes.
+   */
+  void completed()
+  {
+    if (!deadline_monitored_ && cost_ < 0)
+      {
+        return;
+      }
+    long now = System.nanoTime();
+    if (deadline_monitored_ && now - deadline_ > 0)
+      {
+        fire(release_.getDeadlineMissHandler());
+      }
+    if (cost_ >= 0 && now - start_ > cost_)
+      {
+        fire(release_.getCostOverrunHandler());
+      }
+  }
+
+  private static void fire(AsyncEventHandler handler)
+  {
+    if (handler != null)
+      {
+        try
+          {
+            handler.release();
+          }
+        catch (MITViolationException | ArrivalTimeQueueOverflowException e)
+          {
+            // the monitor fires like a timer, which ignores rejections
+          }
+      }
+  }
+
+  /**
+   * The timer that counts delayed releases at their release time.  It
+   * is dispatched like any other timer and re-armed in place for each
+   * delayed release, so delaying a release allocates nothing.
+   */
+  private final class Deferral extends Timer
+  {
+    Deferral()
+    {
+      super(null, (AsyncBaseEventHandler)null, (TimeDispatcher)null);
+    }
+
+    @Override
+    public void fire()
+    {
+      due();
+    }
+
+    /**
+     * Keeps the timer active, so that it is re-armed in place.
+     */
+    @Override
+    boolean advance()
+    {
+      return true;
+    }
+
+    /**
+     * Counts the due releases, so that the handler is released without
+     * the lock on the timer held.
+     */
+    @Override
+    void releaseFiring()
+    {
+      due();
+    }
+
+    @Override
+    int getReleasePriority()
+    {
+      SchedulingParameters scheduling = handler_.getSchedulingParameters();
+      return scheduling instanceof PriorityParameters ?
+        ((PriorityParameters)scheduling).getPriority() : Integer.MIN_VALUE;
+    }
+  }
+}
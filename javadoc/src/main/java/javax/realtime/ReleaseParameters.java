@@ -109,6 +109,17 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public static final RelativeTime DISABLE_MONITORING = new RelativeTime(-1, 0);
 
+  /** The initial length of the event queue of each schedulable. */
+  private int queue_length_;
+
+  /** The queue overflow policy, or {@code null} for the default. */
+  private QueueOverflowPolicy overflow_policy_;
+
+  private RelativeTime cost_;
+  private RelativeTime deadline_;
+  private AsyncEventHandler overrun_handler_;
+  private AsyncEventHandler miss_handler_;
+
   /**
    * Creates a new instance of {@code ReleaseParameters} with the
    * given parameter values.
@@ -155,6 +166,13 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
                               AsyncEventHandler missHandler,
                               boolean rousable)
   {
+    cost_ = checkCost(cost);
+    if (deadline != null)
+      {
+        deadline_ = checkDeadline(deadline);
+      }
+    overrun_handler_ = overrunHandler;
+    miss_handler_ = missHandler;
   }
 
 
@@ -198,6 +216,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
                               AsyncEventHandler overrunHandler,
                               AsyncEventHandler missHandler)
   {
+    this(cost, deadline, overrunHandler, missHandler, false);
   }
 
   /**
@@ -230,7 +249,17 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
   {
     try
       {
-        return super.clone();
+        @SuppressWarnings("unchecked")
+        ReleaseParameters<T> result = (ReleaseParameters<T>)super.clone();
+        if (cost_ != DISABLE_MONITORING)
+          {
+            result.cost_ = new RelativeTime(cost_);
+          }
+        if (deadline_ != null)
+          {
+            result.deadline_ = new RelativeTime(deadline_);
+          }
+        return result;
       }
     catch (CloneNotSupportedException e)
       {
@@ -248,7 +277,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public RelativeTime getCost()
   {
-    return null;
+    return cost_;
   }
 
   /**
@@ -265,7 +294,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public RelativeTime getCost(RelativeTime value)
   {
-    return null;
+    return value == null ? cost_ : value.set(cost_);
   }
 
   /**
@@ -275,7 +304,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public AsyncEventHandler getCostOverrunHandler()
   {
-    return new AsyncEventHandler();
+    return overrun_handler_;
   }
 
   /**
@@ -286,7 +315,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public RelativeTime getDeadline()
   {
-    return null;
+    return deadline_;
   }
 
   /**
@@ -301,7 +330,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public RelativeTime getDeadline(RelativeTime value)
   {
-    return null;
+    return value == null || deadline_ == null ? deadline_ : value.set(deadline_);
   }
 
   /**
@@ -311,7 +340,78 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public AsyncEventHandler getDeadlineMissHandler()
   {
-    return new AsyncEventHandler();
+    return miss_handler_;
+  }
+
+  /**
+   * Gets the cost to which the consumption of each release is compared.
+   *
+   * @return the cost in nanoseconds, or -1 when overruns are not
+   *         reported, since there is no overrun handler, the cost is
+   *         zero or monitoring is disabled.
+   */
+  final long monitoredCost()
+  {
+    RelativeTime cost = cost_;
+    if (overrun_handler_ == null || cost == DISABLE_MONITORING ||
+        cost.signum() <= 0)
+      {
+        return -1L;
+      }
+    return Timer.saturate(cost);
+  }
+
+  /**
+   * Gets the deadline by which each release must complete.
+   *
+   * @return the deadline in nanoseconds relative to the release, or -1
+   *         when misses are not reported, since there is no deadline or
+   *         no miss handler.
+   */
+  final long monitoredDeadline()
+  {
+    RelativeTime deadline = deadline_;
+    if (miss_handler_ == null || deadline == null)
+      {
+        return -1L;
+      }
+    return Timer.saturate(deadline);
+  }
+
+  /**
+   * Gets the minimum time between the releases of a handler, which
+   * only sporadic parameters enforce.
+   *
+   * @return the minimum interarrival time in nanoseconds, or -1 when
+   *         arrivals are not restricted.
+   */
+  long minimumInterarrival()
+  {
+    return -1L;
+  }
+
+  private static RelativeTime checkCost(RelativeTime cost)
+  {
+    if (cost == null)
+      {
+        return new RelativeTime();
+      }
+    if (cost != DISABLE_MONITORING && cost.signum() < 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Negative cost " + cost);
+      }
+    return cost;
+  }
+
+  private static RelativeTime checkDeadline(RelativeTime deadline)
+  {
+    if (deadline == null || deadline.signum() <= 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Deadline " + deadline + " is not positive");
+      }
+    return deadline;
   }
 
 
@@ -347,7 +447,11 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    * @since RTSJ 2.0 returns itself
    */
   @ReturnsThis
-  public T setCost(RelativeTime cost) { return (T)this; }
+  public T setCost(RelativeTime cost)
+  {
+    cost_ = checkCost(cost);
+    return (T)this;
+  }
 
   /**
    * Sets the cost overrun handler.
@@ -375,6 +479,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
   public T setCostOverrunHandler(AsyncEventHandler handler)
     throws IllegalAssignmentError
   {
+    overrun_handler_ = handler;
     return (T)this;
   }
 
@@ -409,6 +514,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
   @ReturnsThis
   public T setDeadline(RelativeTime deadline)
   {
+    deadline_ = checkDeadline(deadline);
     return (T)this;
   }
 
@@ -437,6 +543,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
   @ReturnsThis
   public T setDeadlineMissHandler(AsyncEventHandler handler)
   {
+    miss_handler_ = handler;
     return (T)this;
   }
 
@@ -493,7 +600,17 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    */
   public QueueOverflowPolicy getEventQueueOverflowPolicy()
   {
-    return null;
+    return overflow_policy_ != null ?
+      overflow_policy_ : defaultOverflowPolicy();
+  }
+
+  /**
+   * Determines the policy used until one is set: {@code SAVE}, as for
+   * {@link AperiodicParameters}.
+   */
+  QueueOverflowPolicy defaultOverflowPolicy()
+  {
+    return QueueOverflowPolicy.SAVE;
   }
 
   /**
@@ -502,7 +619,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    * the initial size given in {@code this}.
    *
    * @param policy A queue overflow policy to use for handlers associated
-   *        with {@code this}.
+   *        with {@code this}, or {@code null} for the default policy.
    *
    * @return {@code this}
    *
@@ -511,6 +628,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
   @ReturnsThis
   public T setEventQueueOverflowPolicy(QueueOverflowPolicy policy)
   {
+    overflow_policy_ = policy;
     return (T)this;
   }
 
@@ -527,7 +645,7 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    * @since RTSJ 2.0 replaces the subclasse method
    *  {@code AperiodicParameters.getInitialArrivalTimeQueueLength()}.
    */
-  public int getInitialQueueLength() { return 0; }
+  public int getInitialQueueLength() { return queue_length_; }
 
   /**
    * Sets the initial number of elements the arrival time queue can hold
@@ -548,7 +666,16 @@ public abstract class ReleaseParameters<T extends ReleaseParameters<T>>
    *  {@link AperiodicParameters#setInitialArrivalTimeQueueLength(int)}.
    */
   @ReturnsThis
-  public T setInitialQueueLength(int initial) { return (T)this; }
+  public T setInitialQueueLength(int initial)
+  {
+    if (initial < 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Negative queue length " + initial);
+      }
+    queue_length_ = initial;
+    return (T)this;
+  }
 
   /**
    * This method first performs a feasibility analysis using the new
@@ -0,0 +1,106 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Busy waiting on the realtime clock.  Waits that are longer than a
+ * threshold park the thread until only the threshold remains and spin
+ * for the rest, so that the wait ends with the precision of
+ * {@code System.nanoTime()} rather than that of the scheduler, without
+ * burning a processor for the whole duration.
+ *
+ * <p> The platform is targeted at Java 8, which lacks
+ * {@code Thread.onSpinWait()}.  When the running virtual machine
+ * provides it, it is called through a constant method handle, which
+ * the compiler reduces to the processor's pause instruction; otherwise
+ * the spin loop just polls.
+ */
+final class SpinWait
+{
+  private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+
+  /**
+   * The spin threshold used when none is configured: twice the shortest
+   * time that parking takes, so that a wait that is too short to be
+   * parked reliably is always spun.
+   */
+  static final long DEFAULT_THRESHOLD =
+    2 * RealtimeClock.INSTANCE.getDrivePrecision(null).packedNanos();
+
+  private SpinWait()
+  {
+  }
+
+  private static MethodHandle findOnSpinWait()
+  {
+    try
+      {
+        return MethodHandles.lookup().
+          findStatic(Thread.class, "onSpinWait",
+                     MethodType.methodType(void.class));
+      }
+    catch (ReflectiveOperationException e)
+      {
+        return null;
+      }
+  }
+
+  /**
+   * Hints to the processor that the caller is in a spin loop.
+   */
+  static void pause()
+  {
+    if (ON_SPIN_WAIT != null)
+      {
+        try
+          {
+            ON_SPIN_WAIT.invokeExact();
+          }
+        catch (Throwable e)
+          {
+            throw new InternalError(e.toString());
+          }
+      }
+  }
+
+  /**
+   * Waits until {@code System.nanoTime()} reaches {@code deadline},
+   * parking while more than {@code threshold} nanoseconds remain and
+   * spinning afterwards.
+   *
+   * @param deadline the value of {@code System.nanoTime()} at which to
+   *        return.
+   * @param threshold the remaining time below which to spin.
+   *
+   * @throws InterruptedException when the current thread is interrupted
+   *         before the deadline.  The interrupt status is cleared.
+   */
+  static void until(long deadline, long threshold)
+    throws InterruptedException
+  {
+    long remaining = deadline - System.nanoTime();
+    while (remaining > 0)
+      {
+        if (Thread.interrupted())
+          {
+            throw new InterruptedException();
+          }
+        if (remaining > threshold)
+          {
+            LockSupport.parkNanos(remaining - threshold);
+          }
+        else
+          {
+            pause();
+          }
+        remaining = deadline - System.nanoTime();
+      }
+  }
+}
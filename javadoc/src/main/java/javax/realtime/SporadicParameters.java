@@ -171,6 +171,9 @@ public class SporadicParameters extends AperiodicParameters
   public static final String mitViolationReplace =
     MinimumInterarrivalPolicy.REPLACE.name();
 
+  private RelativeTime minimum_interarrival_;
+  private MinimumInterarrivalPolicy mit_policy_ =
+    MinimumInterarrivalPolicy.SAVE;
 
   /**
    * Creates a {@code SporadicParameters} object.
@@ -231,7 +234,12 @@ public class SporadicParameters extends AperiodicParameters
                             AsyncEventHandler missHandler,
                             boolean rousable)
   {
-    super(cost, deadline, overrunHandler, missHandler, rousable);
+    super(cost,
+          deadline != null ?
+            deadline : new RelativeTime(checkInterarrival(minInterarrival)),
+          overrunHandler, missHandler, rousable);
+    minimum_interarrival_ =
+      new RelativeTime(checkInterarrival(minInterarrival));
   }
 
   /**
@@ -281,6 +289,18 @@ public class SporadicParameters extends AperiodicParameters
   }
 
 
+  /**
+   * Obtains a clone of {@code this}, including a clone of the minimum
+   * interarrival time.
+   */
+  @Override
+  public Object clone()
+  {
+    SporadicParameters result = (SporadicParameters)super.clone();
+    result.minimum_interarrival_ = new RelativeTime(minimum_interarrival_);
+    return result;
+  }
+
   /**
    * Determines the current value of minimal interarrival.
    *
@@ -289,7 +309,7 @@ public class SporadicParameters extends AperiodicParameters
    */
   public RelativeTime getMinimumInterarrival()
   {
-    return null;
+    return minimum_interarrival_;
   }
 
   /**
@@ -305,7 +325,8 @@ public class SporadicParameters extends AperiodicParameters
    */
   public RelativeTime getMinimumInterarrival(RelativeTime value)
   {
-    return null;
+    return value == null ?
+      minimum_interarrival_ : value.set(minimum_interarrival_);
   }
 
   /**
@@ -328,9 +349,31 @@ public class SporadicParameters extends AperiodicParameters
   @ReturnsThis
   public SporadicParameters setMinimumInterarrival(RelativeTime minimum)
   {
+    minimum_interarrival_ = new RelativeTime(checkInterarrival(minimum));
     return this;
   }
 
+  private static RelativeTime checkInterarrival(RelativeTime minimum)
+  {
+    if (minimum == null || minimum.signum() <= 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Minimum interarrival time " + minimum + " is not positive");
+      }
+    return minimum;
+  }
+
+  /**
+   * Gets the minimum interarrival time to enforce on arrivals.
+   *
+   * @return the minimum interarrival time in nanoseconds.
+   */
+  @Override
+  long minimumInterarrival()
+  {
+    return Timer.saturate(minimum_interarrival_);
+  }
+
   /**
    * Sets the policy for handling the arrival time queue when the
    * new arrival time is closer to the previous arrival time than the
@@ -344,6 +387,11 @@ public class SporadicParameters extends AperiodicParameters
   public SporadicParameters
     setMinimumInterarrivalPolicy(MinimumInterarrivalPolicy policy)
   {
+    if (policy == null)
+      {
+        throw StaticIllegalArgumentException.get().init("policy is null");
+      }
+    mit_policy_ = policy;
     return this;
   }
 
@@ -358,7 +406,7 @@ public class SporadicParameters extends AperiodicParameters
    */
   public MinimumInterarrivalPolicy getMinimumInterarrivalPolicy()
   {
-    return null;
+    return mit_policy_;
   }
 
   /**
@@ -381,6 +429,29 @@ public class SporadicParameters extends AperiodicParameters
   @Deprecated
   public void setMitViolationBehavior(String behavior)
   {
+    MinimumInterarrivalPolicy policy;
+    if (behavior == mitViolationExcept)
+      {
+        policy = MinimumInterarrivalPolicy.EXCEPT;
+      }
+    else if (behavior == mitViolationIgnore)
+      {
+        policy = MinimumInterarrivalPolicy.IGNORE;
+      }
+    else if (behavior == mitViolationReplace)
+      {
+        policy = MinimumInterarrivalPolicy.REPLACE;
+      }
+    else if (behavior == mitViolationSave)
+      {
+        policy = MinimumInterarrivalPolicy.SAVE;
+      }
+    else
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Unknown MIT violation behavior " + behavior);
+      }
+    mit_policy_ = policy;
   }
 
 
@@ -396,7 +467,13 @@ public class SporadicParameters extends AperiodicParameters
   @Deprecated
   public String getMitViolationBehavior()
   {
-    return new String();
+    switch (mit_policy_)
+      {
+      case EXCEPT:  return mitViolationExcept;
+      case IGNORE:  return mitViolationIgnore;
+      case REPLACE: return mitViolationReplace;
+      default:      return mitViolationSave;
+      }
   }
 
 
@@ -0,0 +1,108 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * The exception thrown when an arithmetic operation fails, for instance
+ * when a time value does not fit in the normalized format.  It is not
+ * part of the API: methods declare the {@link ArithmeticException} it
+ * extends, and it only keeps the message and stack trace per thread
+ * like the public static throwables.
+ */
+final class StaticArithmeticException
+  extends ArithmeticException
+  implements StaticThrowable<StaticArithmeticException>
+{
+  private static final long serialVersionUID = 4728951306274530918L;
+
+  private static final StaticArithmeticException _singleton_ =
+    new StaticArithmeticException();
+
+  /**
+   * Gets the preallocated version of this  {@code Throwable}.  Allocation is
+   * done in memory that acts like {@link ImmortalMemory}.  The message,
+   * cause, and the stack trace are cleared.  It should be initialized
+   * before throwing.
+   *
+   * @return the preallocated exception.
+   */
+  static StaticArithmeticException get()
+  {
+    return _singleton_;
+  }
+
+  StaticArithmeticException()
+  {
+  }
+
+  @Override
+  public String getMessage()
+  {
+    return StaticThrowableStorage.getCurrent().getMessage();
+  }
+
+  @Override
+  public String getLocalizedMessage()
+  {
+    return StaticThrowableStorage.getCurrent().getLocalizedMessage();
+  }
+
+  @Override
+  public Throwable initCause(Throwable causingThrowable)
+  {
+    StaticThrowableStorage.getCurrent().initCause(causingThrowable);
+    return this;
+  }
+
+  @Override
+  public Throwable getCause()
+  {
+    return StaticThrowableStorage.getCurrent().getCause();
+  }
+
+  @Override
+  public Throwable fillInStackTrace()
+  {
+    StaticThrowableStorage.getCurrent().fillInStackTrace();
+    return this;
+  }
+
+  @Override
+  public void setStackTrace(StackTraceElement[] new_stackTrace)
+    throws NullPointerException
+  {
+    StaticThrowableStorage.getCurrent().setStackTrace(new_stackTrace);
+  }
+
+  @Override
+  public StackTraceElement[] getStackTrace()
+  {
+    return StaticThrowableStorage.getCurrent().getStackTrace();
+  }
+
+  @Override
+  public void printStackTrace()
+  {
+    StaticThrowableStorage.getCurrent().printStackTrace();
+  }
+
+  @Override
+  public void printStackTrace(PrintStream stream)
+  {
+    StaticThrowableStorage.getCurrent().printStackTrace(stream);
+  }
+
+  @Override
+  public void printStackTrace(PrintWriter writer)
+  {
+    StaticThrowableStorage.getCurrent().printStackTrace(writer);
+  }
+
+  @Override
+  public StaticArithmeticException getSingleton() { return _singleton_; }
+}
@@ -4,25 +4,38 @@
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
-import java.util.Stack;
-
 /**
  * A dispatcher for time events: {@link Timer} and {@link RealtimeThread#sleep}.
+ * Active timers are kept in a hierarchical timing wheel, so that starting,
+ * stopping and rescheduling a timer take constant time regardless of how
+ * many timers are active.  A {@link TimeDispatcherGroup} spreads timers
+ * over one dispatcher per processor.
  *
  * @since RTSJ 2.0
  */
 public final class TimeDispatcher
   extends ActiveEventDispatcher<TimeDispatcher, Timer>
 {
+  private static TimeDispatcher _default_;
+  private static TimeDispatcher _system_;
+
+  private final TimerWheel wheel_;
+  private int registered_;
+  private boolean started_;
+  private boolean destroyed_;
+
   /**
-   * Sets the system default time dispatcher.
+   * Sets the system default time dispatcher.  It dispatches the timers
+   * that have no dispatcher of their own unless a default
+   * {@link TimeDispatcherGroup} is set.
    *
    * @param dispatcher To be used when no dispatcher is provided.  When
    *        {@code null}, the default time dispatcher is set to the
    *        original system default.
    */
-  public static void setDefaultDispatcher(TimeDispatcher dispatcher)
+  public static synchronized void setDefaultDispatcher(TimeDispatcher dispatcher)
   {
+    _default_ = dispatcher;
   }
 
   /**
@@ -32,7 +45,32 @@ public final class TimeDispatcher
    */
   public static synchronized TimeDispatcher getDefaultDispatcher()
   {
-    return null;
+    if (_default_ != null)
+      {
+        return _default_;
+      }
+    if (_system_ == null)
+      {
+        int priority = FirstInFirstOutScheduler.instance().getMaxPriority();
+        _system_ = new TimeDispatcher(new PriorityParameters(priority));
+      }
+    return _system_;
+  }
+
+  /**
+   * Gets the dispatcher for a timer that has none of its own: a member
+   * of the default {@link TimeDispatcherGroup} when there is one, or the
+   * default dispatcher otherwise.
+   *
+   * @param timer the timer to dispatch.
+   *
+   * @return the dispatcher to use for {@code timer}.
+   */
+  static TimeDispatcher getDefaultDispatcher(Timer timer)
+  {
+    TimeDispatcherGroup group = TimeDispatcherGroup.getDefaultGroup();
+    return group != null ?
+      group.getDispatcher(timer) : getDefaultDispatcher();
   }
 
   /**
@@ -49,7 +87,15 @@ public final class TimeDispatcher
                         RealtimeThreadGroup group)
     throws StaticIllegalStateException
   {
-    super(new RealtimeThread(schedule));
+    this(schedule, group, new TimerWheel());
+  }
+
+  private TimeDispatcher(SchedulingParameters schedule,
+                         RealtimeThreadGroup group,
+                         TimerWheel wheel)
+  {
+    super(new RealtimeThread(schedule, null, null, null, null, group, wheel));
+    wheel_ = wheel;
   }
 
   /**
@@ -74,16 +120,40 @@ public final class TimeDispatcher
   @Override
   public boolean isRegistered(Timer target)
   {
-    return false;
+    return target != null && target.getRegistered() == this;
   }
 
   /**
    * {@inheritDoc}
+   *
+   * <p> A timer registered with another dispatcher is deregistered from
+   * it first, before the lock on {@code this} is taken, so that no thread
+   * ever holds the locks of two dispatchers.  Registrations of a timer
+   * are serialized by the lock on the timer, which its callers hold.
    */
   @Override
   protected void register(Timer target)
     throws RegistrationException, StaticIllegalStateException
   {
+    TimeDispatcher previous = target.getRegistered();
+    if (previous == this)
+      {
+        throw RegistrationException.get().init("Timer is registered");
+      }
+    synchronized (this)
+      {
+        checkNotDestroyed();
+      }
+    if (previous != null)
+      {
+        previous.deregister(target);
+      }
+    synchronized (this)
+      {
+        checkNotDestroyed();
+        target.setRegistered(this);
+        registered_++;
+      }
   }
 
   /**
@@ -92,15 +162,62 @@ public final class TimeDispatcher
   @Override
   protected void activate(Timer target) throws StaticIllegalStateException
   {
+    synchronized (this)
+      {
+        checkNotDestroyed();
+        if (target.getRegistered() != this)
+          {
+            throw RegistrationException.get().init("Timer is not registered");
+          }
+        if (!started_)
+          {
+            RealtimeThread thread = getThread();
+            thread.setDaemon(true);
+            thread.start();
+            started_ = true;
+          }
+      }
+    wheel_.add(target);
+  }
+
+  /**
+   * Determines whether any timer is registered with {@code this}.
+   */
+  synchronized boolean hasRegistered()
+  {
+    return registered_ > 0;
+  }
+
+  /**
+   * Moves an active timer to a new fire time.
+   *
+   * @param target the timer to move.
+   * @param fireNanos the new fire time on the scale of
+   *        {@code System.nanoTime()}.
+   */
+  void reschedule(Timer target, long fireNanos)
+  {
+    wheel_.move(target, fireNanos);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  protected void deregister(Timer target)
+  protected synchronized void deregister(Timer target)
     throws DeregistrationException, StaticIllegalStateException
   {
+    if (target == null || target.isActive())
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Timer is null or active");
+      }
+    if (target.getRegistered() != this)
+      {
+        throw DeregistrationException.get().init("Timer is not registered");
+      }
+    target.setRegistered(null);
+    registered_--;
   }
 
   /**
@@ -109,6 +226,7 @@ public final class TimeDispatcher
   @Override
   protected void deactivate(Timer target) throws StaticIllegalStateException
   {
+    wheel_.remove(target);
   }
 
   /**
@@ -118,8 +236,23 @@ public final class TimeDispatcher
    *         one or more registered {@link Timer} objects.
    */
   @Override
-  public void destroy()
+  public synchronized void destroy()
     throws StaticIllegalStateException
   {
+    if (registered_ > 0)
+      {
+        throw StaticIllegalStateException.get().
+          init("Timers are still registered");
+      }
+    destroyed_ = true;
+    wheel_.destroy();
+  }
+
+  private void checkNotDestroyed() throws StaticIllegalStateException
+  {
+    if (destroyed_)
+      {
+        throw StaticIllegalStateException.get().init("Dispatcher is destroyed");
+      }
   }
 }
@@ -0,0 +1,256 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.BitSet;
+
+/**
+ * A group of {@link TimeDispatcher}s, one per processor, among which
+ * timers are distributed, so that the timers of an application are not
+ * all dispatched by a single thread.  The dispatching thread of each
+ * member is bound to its processor and started when the first timer is
+ * started on it.
+ *
+ * <p> A timer can be placed on a member explicitly by passing the
+ * result of {@link #getDispatcher(Affinity)} or {@link #getDispatcher(int)}
+ * to {@link Timer#setDispatcher(TimeDispatcher)}.  When a group is set
+ * with {@link #setDefaultGroup(TimeDispatcherGroup)}, each timer without
+ * a dispatcher of its own is dispatched by the member that
+ * {@link #getDispatcher(Timer)} selects for it, instead of by
+ * {@link TimeDispatcher#getDefaultDispatcher()}.
+ *
+ * @since RTSJ 2.1
+ */
+public final class TimeDispatcherGroup
+{
+  private static volatile TimeDispatcherGroup _default_;
+
+  /** The members, in the order of their processors. */
+  private final TimeDispatcher[] dispatchers_;
+
+  /** The processor of each member. */
+  private final int[] processors_;
+
+  /**
+   * Sets the group whose members dispatch all timers that have no
+   * dispatcher of their own.  Timers that are already registered with a
+   * dispatcher keep it until they are started again.
+   *
+   * @param group the group to use, or {@code null} to dispatch such
+   *        timers with {@link TimeDispatcher#getDefaultDispatcher()}.
+   */
+  public static void setDefaultGroup(TimeDispatcherGroup group)
+  {
+    _default_ = group;
+  }
+
+  /**
+   * Gets the group set by {@link #setDefaultGroup(TimeDispatcherGroup)}.
+   *
+   * @return the default group or {@code null} when there is none.
+   */
+  public static TimeDispatcherGroup getDefaultGroup()
+  {
+    return _default_;
+  }
+
+  /**
+   * Creates a group with one dispatcher for each of the given processors.
+   *
+   * @param priority The priority of the dispatching threads.
+   *
+   * @param processors The processors to create dispatchers for.  When
+   *        {@code null}, all available processors are used.
+   *
+   * @param group The thread group of the dispatching threads, or
+   *        {@code null} for that of the current thread.
+   *
+   * @throws StaticIllegalArgumentException when {@code processors} is
+   *         empty.
+   *
+   * @throws StaticIllegalStateException when a processor cannot be used
+   *         by a thread of {@code group}.
+   */
+  public TimeDispatcherGroup(int priority,
+                             BitSet processors,
+                             RealtimeThreadGroup group)
+    throws StaticIllegalArgumentException, StaticIllegalStateException
+  {
+    if (processors == null)
+      {
+        processors = availableProcessors();
+      }
+    int count = processors.cardinality();
+    if (count == 0)
+      {
+        throw StaticIllegalArgumentException.get().init("No processors");
+      }
+    dispatchers_ = new TimeDispatcher[count];
+    processors_ = new int[count];
+    BitSet single = new BitSet();
+    int processor = processors.nextSetBit(0);
+    for (int i = 0; i < count; i++)
+      {
+        single.clear();
+        single.set(processor);
+        SchedulingParameters schedule =
+          new PriorityParameters(priority, Affinity.generate(single));
+        dispatchers_[i] = new TimeDispatcher(schedule, group);
+        processors_[i] = processor;
+        processor = processors.nextSetBit(processor + 1);
+      }
+  }
+
+  /**
+   * Creates a group with one dispatcher for each available processor.
+   * Equivalent to {@code TimeDispatcherGroup(priority, null, null)}.
+   *
+   * @param priority The priority of the dispatching threads.
+   */
+  public TimeDispatcherGroup(int priority)
+  {
+    this(priority, null, null);
+  }
+
+  /**
+   * Determines the processors available to the runtime, or the first
+   * processors up to the number the Java runtime reports when they are
+   * not known.
+   */
+  static BitSet availableProcessors()
+  {
+    BitSet processors = Affinity.getAvailableProcessors();
+    if (processors == null || processors.isEmpty())
+      {
+        processors = new BitSet();
+        processors.set(0, Runtime.getRuntime().availableProcessors());
+      }
+    return processors;
+  }
+
+  /**
+   * Gets the number of dispatchers in {@code this} group.
+   *
+   * @return the number of members.
+   */
+  public int size()
+  {
+    return dispatchers_.length;
+  }
+
+  /**
+   * Gets a member by its index.
+   *
+   * @param index The index of the member, from zero to {@link #size()}
+   *        exclusive.
+   *
+   * @return the dispatcher with the given index.
+   *
+   * @throws StaticIllegalArgumentException when {@code index} is out of
+   *         range.
+   */
+  public TimeDispatcher getDispatcher(int index)
+    throws StaticIllegalArgumentException
+  {
+    if (index < 0 || index >= dispatchers_.length)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid index " + index);
+      }
+    return dispatchers_[index];
+  }
+
+  /**
+   * Gets the member running on the lowest numbered processor of
+   * {@code affinity}.
+   *
+   * @param affinity The affinity on which the timer should be dispatched.
+   *
+   * @return the dispatcher bound to a processor of {@code affinity}.
+   *
+   * @throws StaticIllegalArgumentException when {@code affinity} is
+   *         {@code null} or contains no processor of {@code this} group.
+   */
+  public TimeDispatcher getDispatcher(Affinity affinity)
+    throws StaticIllegalArgumentException
+  {
+    if (affinity != null)
+      {
+        for (int i = 0; i < processors_.length; i++)
+          {
+            if (affinity.isProcessorInSet(processors_[i]))
+              {
+                return dispatchers_[i];
+              }
+          }
+      }
+    throw StaticIllegalArgumentException.get().
+      init("Affinity contains no processor of the group");
+  }
+
+  /**
+   * Gets the member that dispatches {@code timer} when it has no
+   * dispatcher of its own.  The choice depends only on the identity of
+   * {@code timer}, so it is the same each time the timer is started,
+   * and timers are spread evenly over all members.
+   *
+   * @param timer The timer to find a dispatcher for.
+   *
+   * @return the dispatcher for {@code timer}.
+   */
+  public TimeDispatcher getDispatcher(Timer timer)
+  {
+    int hash = System.identityHashCode(timer);
+    hash ^= hash >>> 16;
+    return dispatchers_[(hash & Integer.MAX_VALUE) % dispatchers_.length];
+  }
+
+  /**
+   * Destroys all members.  When this group is the default group, it is
+   * no longer used as such.
+   *
+   * @throws StaticIllegalStateException when a member has one or more
+   *         registered {@link Timer} objects.  No member is destroyed in
+   *         this case.
+   */
+  public synchronized void destroy() throws StaticIllegalStateException
+  {
+    destroyFrom(0);
+  }
+
+  /**
+   * Takes the lock on each member from {@code index} on, so that no
+   * timer can register with any member between checking them all and
+   * destroying them.  No other code holds the locks of two dispatchers,
+   * so taking them in order cannot deadlock.
+   */
+  private void destroyFrom(int index) throws StaticIllegalStateException
+  {
+    if (index < dispatchers_.length)
+      {
+        synchronized (dispatchers_[index])
+          {
+            destroyFrom(index + 1);
+          }
+        return;
+      }
+    for (TimeDispatcher dispatcher : dispatchers_)
+      {
+        if (dispatcher.hasRegistered())
+          {
+            throw StaticIllegalStateException.get().
+              init("Timers are still registered");
+          }
+      }
+    if (_default_ == this)
+      {
+        _default_ = null;
+      }
+    for (TimeDispatcher dispatcher : dispatchers_)
+      {
+        dispatcher.destroy();
+      }
+  }
+}
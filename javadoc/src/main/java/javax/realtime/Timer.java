@@ -21,6 +21,36 @@ public abstract class Timer
   extends AsyncEvent
   implements ActiveEvent<Timer, TimeDispatcher>
 {
+  /*
+   * The fields of the timer queue node are owned by the TimerWheel of
+   * the dispatcher that the timer is active on and guarded by it.  Fire
+   * times are values of System.nanoTime().  A timer that takes its lock
+   * may take the lock of the wheel, but never the other way round.
+   */
+  long fire_nanos_;
+  Timer next_;
+  Timer prev_;
+  int slot_ = TimerWheel.NONE;
+  int heap_index_ = -1;
+
+  /** The delay in nanoseconds that the wheel may add to coalesce. */
+  long slack_nanos_;
+
+  private final HighResolutionTime<?> start_;
+  private final AbsoluteTime absolute_;
+  private final RelativeTime relative_;
+  private final AbsoluteTime clock_now_;
+  private boolean relative_time_;
+  private Clock clock_;
+  private TimeDispatcher dispatcher_;
+  private TimeDispatcher registered_;
+  private long start_nanos_;
+  private boolean fired_;
+  private PhasingPolicy policy_;
+  private boolean destroyed_;
+  private volatile boolean active_;
+  private volatile boolean enabled_;
+
   /**
    * Creates a timer that fires according to the given {@code time} based
    * on the {@link Clock} associated with {@code time} and is dispatched
@@ -61,6 +91,22 @@ public abstract class Timer
            StaticUnsupportedOperationException,
            IllegalAssignmentError
   {
+    if (time == null)
+      {
+        time = new RelativeTime();
+      }
+    checkTime(time);
+    clock_ = (Clock)time.getChronograph();
+    start_ = (HighResolutionTime<?>)time.clone();
+    absolute_ = new AbsoluteTime((Chronograph)clock_);
+    relative_ = new RelativeTime((Chronograph)clock_);
+    clock_now_ = new AbsoluteTime((Chronograph)clock_);
+    assignTime(time);
+    dispatcher_ = dispatcher;
+    if (handler != null)
+      {
+        addHandler(handler);
+      }
   }
 
   /**
@@ -109,6 +155,239 @@ public abstract class Timer
            StaticUnsupportedOperationException,
            IllegalAssignmentError
   {
+    this(checkClock(time, clock), handler, null);
+  }
+
+  /**
+   * Checks the arguments of the deprecated constructor.
+   *
+   * @return {@code time}, or a relative time of zero on {@code clock}
+   *         when {@code time} is {@code null}.
+   */
+  private static HighResolutionTime<?> checkClock(HighResolutionTime<?> time,
+                                                  Clock clock)
+  {
+    if (time == null)
+      {
+        return new RelativeTime((Chronograph)clock);
+      }
+    if (clock != null && time.getChronograph() != clock)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("clock is not the clock of time");
+      }
+    return time;
+  }
+
+  /**
+   * Checks that {@code time} may be used as the time of a timer.
+   */
+  private static void checkTime(HighResolutionTime<?> time)
+    throws StaticIllegalArgumentException, StaticUnsupportedOperationException
+  {
+    if (time instanceof RelativeTime &&
+        ((RelativeTime)time).compareToZero() < 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Negative relative time");
+      }
+    if (!(time.getChronograph() instanceof Clock))
+      {
+        throw StaticUnsupportedOperationException.get().
+          init("Chronograph is not a clock");
+      }
+  }
+
+  /**
+   * Copies {@code time} into the preallocated time of the same type, so
+   * that scheduling a timer anew does not allocate.
+   */
+  private void assignTime(HighResolutionTime<?> time)
+  {
+    relative_time_ = time instanceof RelativeTime;
+    if (relative_time_)
+      {
+        relative_.set((RelativeTime)time);
+      }
+    else
+      {
+        absolute_.set((AbsoluteTime)time);
+      }
+    clock_ = (Clock)time.getChronograph();
+  }
+
+  /**
+   * Determines the fire time of the current activation on the scale of
+   * {@code System.nanoTime()}.
+   *
+   * @param now the time of the start or reschedule.
+   *
+   * @return the fire time, saturated to about a century from
+   *         {@code now}.
+   */
+  private long fireNanos(long now)
+  {
+    if (relative_time_)
+      {
+        return now + saturate(relative_);
+      }
+    if (clock_ == RealtimeClock.INSTANCE)
+      {
+        return absolute_.isPacked() ?
+          absolute_.packedNanos() : now + saturate(absolute_);
+      }
+    // Measure the distance on the timer's own clock without allocating.
+    AbsoluteTime current = clock_.getTime(clock_now_);
+    absolute_.subtractTo(current, current);
+    return now + saturate(current);
+  }
+
+  /**
+   * Gets {@code time} in nanoseconds, limited to half of the range of
+   * {@code System.nanoTime()} in both directions.
+   */
+  static long saturate(HighResolutionTime<?> time)
+  {
+    final long limit = Long.MAX_VALUE >> 1;
+    if (!time.isPacked())
+      {
+        return time.signum() < 0 ? -limit : limit;
+      }
+    return Math.max(-limit, Math.min(limit, time.packedNanos()));
+  }
+
+  /**
+   * Stores {@code nanos}, a value of {@code System.nanoTime()}, as the
+   * corresponding time on the clock of {@code this} in {@code dest}.
+   */
+  final AbsoluteTime clockTime(long nanos, AbsoluteTime dest)
+  {
+    Clock clock = clock_;
+    AbsoluteTime result =
+      dest == null ? new AbsoluteTime((Chronograph)clock) : dest;
+    if (clock == RealtimeClock.INSTANCE)
+      {
+        result.setChronograph(clock);
+        result.assignNanos(nanos);
+      }
+    else
+      {
+        clock.getTime(result);
+        result.addTo(0L, nanos - System.nanoTime(), result);
+      }
+    return result;
+  }
+
+  /**
+   * Gets a copy of the time given to the constructor or the last call
+   * to {@link #reschedule(HighResolutionTime)}.  The caller must hold
+   * the lock on {@code this}.
+   */
+  final HighResolutionTime<?> scheduledTime()
+  {
+    return relative_time_ ?
+      (HighResolutionTime<?>)relative_.clone() :
+      (HighResolutionTime<?>)absolute_.clone();
+  }
+
+  /**
+   * Fails when {@code this} has been destroyed.
+   */
+  final void checkNotDestroyed() throws StaticIllegalStateException
+  {
+    if (destroyed_)
+      {
+        throw StaticIllegalStateException.get().init("Timer is destroyed");
+      }
+  }
+
+  /**
+   * Releases the current activation of {@code this}, called by the
+   * dispatching thread when {@code fireNanos} has been reached.  Nothing
+   * happens when the timer has been stopped or rescheduled meanwhile.
+   * The check and the end of the firing by {@link #advance()} are done
+   * under the lock on {@code this}, so a timer that is restarted while
+   * its handlers are released keeps its new activation.
+   * As for any firing by the infrastructure, a handler that rejects its
+   * release because of its minimum interarrival time or a full event
+   * queue is skipped; the other handlers are still released, and the
+   * dispatching thread goes on with the other timers.
+   *
+   * @param fireNanos the fire time for which {@code this} was dequeued.
+   */
+  final void expire(long fireNanos)
+  {
+    synchronized (this)
+      {
+        if (!active_ || fire_nanos_ != fireNanos || slot_ != TimerWheel.NONE)
+          {
+            return;
+          }
+        fired_ = true;
+        if (!advance())
+          {
+            return;
+          }
+      }
+    try
+      {
+        releaseFiring();
+      }
+    catch (MITViolationException | ArrivalTimeQueueOverflowException e)
+      {
+        // the handlers that accepted the release have been released
+      }
+  }
+
+  /**
+   * Releases the handlers of a firing ended by {@link #advance()},
+   * without the lock on {@code this}.
+   */
+  void releaseFiring()
+  {
+    releaseHandlers();
+  }
+
+  /**
+   * Ends the current firing of {@code this} when it is active, for
+   * {@link #fire()}.
+   *
+   * @return whether the handlers are to be released.
+   */
+  final synchronized boolean endFiring()
+  {
+    return active_ && advance();
+  }
+
+  /**
+   * Ends a firing of the active {@code this}.  A one-shot timer stops,
+   * which is done here; a periodic timer overrides this to move to its
+   * next fire time.  The caller holds the lock on {@code this}.
+   *
+   * @return whether the handlers are to be released, i.e., whether
+   *         {@code this} was enabled.
+   */
+  boolean advance()
+  {
+    boolean release = enabled_;
+    stop();
+    return release;
+  }
+
+  /**
+   * Gets the dispatcher that {@code this} is registered with.
+   */
+  final TimeDispatcher getRegistered()
+  {
+    return registered_;
+  }
+
+  /**
+   * Records the dispatcher that {@code this} is registered with.
+   */
+  final void setRegistered(TimeDispatcher dispatcher)
+  {
+    registered_ = dispatcher;
   }
 
   /**
@@ -122,7 +401,8 @@ public abstract class Timer
    */
   public Clock getClock() throws StaticIllegalStateException
   {
-    return null;
+    checkNotDestroyed();
+    return clock_;
   }
 
   /**
@@ -138,7 +418,7 @@ public abstract class Timer
    */
   public HighResolutionTime<?> getStart()
   {
-    return null;
+    return (HighResolutionTime<?>)start_.clone();
   }
 
   /**
@@ -159,7 +439,7 @@ public abstract class Timer
   public AbsoluteTime getEffectiveStartTime()
     throws StaticIllegalStateException, ArithmeticException
   {
-    return null;
+    return getEffectiveStartTime(null);
   }
 
 
@@ -185,10 +465,23 @@ public abstract class Timer
    *
    * @since RTSJ 2.0
    */
-  public AbsoluteTime getEffectiveStartTime(AbsoluteTime dest)
+  public synchronized AbsoluteTime getEffectiveStartTime(AbsoluteTime dest)
     throws StaticIllegalStateException, ArithmeticException
   {
-    return null;
+    checkActive();
+    return clockTime(start_nanos_, dest);
+  }
+
+  /**
+   * Fails when {@code this} has been destroyed or is not active.
+   */
+  private void checkActive() throws StaticIllegalStateException
+  {
+    checkNotDestroyed();
+    if (!active_)
+      {
+        throw StaticIllegalStateException.get().init("Timer is not active");
+      }
   }
 
   /**
@@ -222,7 +515,7 @@ public abstract class Timer
   public AbsoluteTime getFireTime()
     throws StaticIllegalStateException, ArithmeticException
   {
-    return null;
+    return getFireTime(null);
   }
 
   /**
@@ -264,10 +557,77 @@ public abstract class Timer
    *
    * @since RTSJ 1.0.1
    */
-  public AbsoluteTime getFireTime(AbsoluteTime dest)
+  public synchronized AbsoluteTime getFireTime(AbsoluteTime dest)
     throws StaticIllegalStateException, ArithmeticException
   {
-    return null;
+    checkActive();
+    return clockTime(fire_nanos_, dest);
+  }
+
+  /**
+   * Sets how much later than its fire time {@code this} may fire, so
+   * that its dispatcher can fire it together with other timers in one
+   * wakeup.  Timers fired together release their handlers in the order
+   * of the handlers' priorities.  A timer fires at its fire time plus
+   * at most the slack, and never earlier.  A new slack applies from the
+   * next time the timer is started, rescheduled or, for a
+   * {@link PeriodicTimer}, re-armed for its next period.
+   *
+   * @param slack The tolerated delay.  When {@code null}, the slack is
+   *        zero, which is the default.
+   *
+   * @return {@code this}
+   *
+   * @throws StaticIllegalArgumentException when {@code slack} is negative.
+   *
+   * @throws StaticIllegalStateException when this {@code Timer} has been
+   *         <em>destroyed</em>.
+   *
+   * @since RTSJ 2.1
+   */
+  @ReturnsThis
+  public synchronized Timer setSlack(RelativeTime slack)
+    throws StaticIllegalArgumentException, StaticIllegalStateException
+  {
+    checkNotDestroyed();
+    if (slack == null)
+      {
+        slack_nanos_ = 0L;
+      }
+    else if (slack.compareToZero() < 0)
+      {
+        throw StaticIllegalArgumentException.get().init("Negative slack");
+      }
+    else
+      {
+        slack_nanos_ = saturate(slack);
+      }
+    return this;
+  }
+
+  /**
+   * Gets the slack set by {@link #setSlack(RelativeTime)}.
+   *
+   * @param dest The instance of {@link RelativeTime} which will be
+   *        updated in place and returned.  When {@code null}, a new
+   *        object is allocated for the result.
+   *
+   * @return the slack, associated with the clock of {@code this}.
+   *
+   * @throws StaticIllegalStateException when this {@code Timer} has been
+   *         <em>destroyed</em>.
+   *
+   * @since RTSJ 2.1
+   */
+  public synchronized RelativeTime getSlack(RelativeTime dest)
+    throws StaticIllegalStateException
+  {
+    checkNotDestroyed();
+    RelativeTime result =
+      dest == null ? new RelativeTime((Chronograph)clock_) : dest;
+    result.setChronograph(clock_);
+    result.assignNanos(slack_nanos_);
+    return result;
   }
 
   /**
@@ -276,16 +636,28 @@ public abstract class Timer
   @Override
   public TimeDispatcher getDispatcher()
   {
-    return null;
+    TimeDispatcher dispatcher = dispatcher_;
+    return dispatcher != null ?
+      dispatcher : TimeDispatcher.getDefaultDispatcher(this);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public TimeDispatcher setDispatcher(TimeDispatcher dispatcher)
+  public synchronized TimeDispatcher setDispatcher(TimeDispatcher dispatcher)
   {
-    return null;
+    checkNotDestroyed();
+    if (active_)
+      {
+        throw StaticIllegalStateException.get().init("Timer is active");
+      }
+    if (registered_ != null && registered_ != dispatcher)
+      {
+        registered_.deregister(this);
+      }
+    dispatcher_ = dispatcher;
+    return getDispatcher();
   }
 
   /**
@@ -299,7 +671,7 @@ public abstract class Timer
   @Override
   public boolean isActive()
   {
-    return false;
+    return active_;
   }
 
 
@@ -321,7 +693,8 @@ public abstract class Timer
   @Override
   public boolean isRunning() throws StaticIllegalStateException
   {
-    return true;
+    checkNotDestroyed();
+    return active_ && enabled_;
   }
 
   /**
@@ -343,7 +716,8 @@ public abstract class Timer
   public boolean handledBy(AsyncEventHandler handler)
     throws StaticIllegalStateException
   {
-    return false;
+    checkNotDestroyed();
+    return super.handledBy(handler);
   }
 
   /**
@@ -364,7 +738,8 @@ public abstract class Timer
   public ReleaseParameters<?> createReleaseParameters()
     throws StaticIllegalStateException
   {
-    return null;
+    checkNotDestroyed();
+    return super.createReleaseParameters();
   }
 
   /**
@@ -381,8 +756,13 @@ public abstract class Timer
    * has been <em>destroyed</em>.
    */
   @Override
-  public void enable() throws StaticIllegalStateException
+  public synchronized void enable() throws StaticIllegalStateException
   {
+    checkNotDestroyed();
+    if (active_)
+      {
+        enabled_ = true;
+      }
   }
 
   /**
@@ -417,8 +797,10 @@ public abstract class Timer
    * has been <em>destroyed</em>.
    */
   @Override
-  public void disable() throws StaticIllegalStateException
+  public synchronized void disable() throws StaticIllegalStateException
   {
+    checkNotDestroyed();
+    enabled_ = false;
   }
 
   /**
@@ -433,6 +815,7 @@ public abstract class Timer
   @Override
   public void start() throws StaticIllegalStateException
   {
+    start(false);
   }
 
   /**
@@ -455,10 +838,65 @@ public abstract class Timer
    * @since RTSJ 1.0.1
    */
   @Override
-  public void start(boolean disabled) throws StaticIllegalStateException
+  public synchronized void start(boolean disabled)
+    throws StaticIllegalStateException
   {
+    activate(disabled, null);
   }
 
+  /**
+   * Makes {@code this} active, placing its first firing according to
+   * {@code policy}, which is {@code null} when none was given.  The
+   * caller must hold the lock on {@code this}.
+   */
+  private void activate(boolean disabled, PhasingPolicy policy)
+  {
+    checkNotDestroyed();
+    if (active_)
+      {
+        throw StaticIllegalStateException.get().init("Timer is active");
+      }
+    TimeDispatcher dispatcher = getDispatcher();
+    if (registered_ != dispatcher)
+      {
+        dispatcher.register(this);
+      }
+    long now = System.nanoTime();
+    start_nanos_ = now;
+    policy_ = policy;
+    fire_nanos_ = phase(fireNanos(now), now, policy);
+    fired_ = false;
+    enabled_ = !disabled;
+    active_ = true;
+    dispatcher.activate(this);
+  }
+
+  /**
+   * Determines the first fire time of an activation, when it is started
+   * or rescheduled.  A timer fires once, so it fires as soon as possible
+   * when it is late.
+   *
+   * @param scheduled the fire time given by the time of the timer.
+   * @param now the current time.
+   * @param policy the phasing policy of the start, which has already
+   *        been checked, or {@code null} when none was given.
+   *
+   * @return the fire time to use.
+   */
+  long phase(long scheduled, long now, PhasingPolicy policy)
+  {
+    return scheduled;
+  }
+
+  /**
+   * Gets the phasing policy of the current or last activation, or
+   * {@code null} when it was started without one.  The caller must hold
+   * the lock on {@code this}.
+   */
+  final PhasingPolicy getPhasingPolicy()
+  {
+    return policy_;
+  }
 
   /**
    * Starts the timer with the specified {@link PhasingPolicy}.
@@ -501,6 +939,32 @@ public abstract class Timer
   public void start(boolean disabled, PhasingPolicy phasingPolicy)
     throws LateStartException, StaticIllegalArgumentException
   {
+    if (phasingPolicy == null)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("phasingPolicy is null");
+      }
+    if (!(phasingPolicy == PhasingPolicy.ADJUST_IMMEDIATE ||
+          phasingPolicy == PhasingPolicy.STRICT_PHASING ||
+          this instanceof PeriodicTimer))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Policy is only valid for periodic timers");
+      }
+    synchronized (this)
+      {
+        if (relative_time_)
+          {
+            throw StaticIllegalArgumentException.get().
+              init("Start time is not absolute");
+          }
+        if (phasingPolicy == PhasingPolicy.STRICT_PHASING &&
+            fireNanos(System.nanoTime()) - System.nanoTime() < 0)
+          {
+            throw LateStartException.get().init("Start time has passed");
+          }
+        activate(disabled, phasingPolicy);
+      }
   }
 
   /**
@@ -514,9 +978,17 @@ public abstract class Timer
    * has been <em>destroyed</em>.
    */
   @Override
-  public boolean stop() throws StaticIllegalStateException
+  public synchronized boolean stop() throws StaticIllegalStateException
   {
-    return true;
+    checkNotDestroyed();
+    boolean enabled = enabled_;
+    if (active_)
+      {
+        active_ = false;
+        registered_.deactivate(this);
+      }
+    enabled_ = false;
+    return enabled;
   }
 
   /**
@@ -555,9 +1027,79 @@ public abstract class Timer
    * @throws StaticIllegalStateException when this {@code Timer} has been
    * <em>destroyed</em>.
    */
-  public void reschedule(HighResolutionTime<?> time)
+  public synchronized void reschedule(HighResolutionTime<?> time)
     throws StaticIllegalStateException, StaticIllegalArgumentException
   {
+    checkNotDestroyed();
+    if (time == null)
+      {
+        return;
+      }
+    checkTime(time);
+    assignTime(time);
+    if (active_ && !fired_)
+      {
+        long now = System.nanoTime();
+        start_nanos_ = now;
+        registered_.reschedule(this, phase(fireNanos(now), now, policy_));
+      }
+  }
+
+  /**
+   * Starts a new activation of {@code this}, as calling {@link #stop()},
+   * {@link #reschedule(HighResolutionTime)} and {@link #start()} in turn
+   * would, but atomically.  When the timer is <em>active</em>, it keeps
+   * its place in the dispatcher and is only moved to its new fire time,
+   * which costs no more than rescheduling it and allocates nothing.  This
+   * suits timeouts that are re-armed for every message they guard, much
+   * like {@link Timed#resetTime(HighResolutionTime)} re-arms a
+   * {@link Timed}.
+   *
+   * @param time The time of the new activation.  When {@code null}, the
+   *        previous time is used again.
+   *
+   * @throws StaticIllegalArgumentException when {@code time} is a
+   *         negative {@code RelativeTime} value.
+   *
+   * @throws StaticIllegalStateException when this {@code Timer} has been
+   *         <em>destroyed</em>.
+   *
+   * @since RTSJ 2.1
+   */
+  public synchronized void restart(HighResolutionTime<?> time)
+    throws StaticIllegalStateException, StaticIllegalArgumentException
+  {
+    checkNotDestroyed();
+    if (time != null)
+      {
+        checkTime(time);
+        assignTime(time);
+      }
+    if (!active_)
+      {
+        activate(false, null);
+        return;
+      }
+    long now = System.nanoTime();
+    start_nanos_ = now;
+    fired_ = false;
+    enabled_ = true;
+    policy_ = null;
+    registered_.reschedule(this, phase(fireNanos(now), now, null));
+  }
+
+  /**
+   * Starts a new activation of {@code this} with its current time.
+   * Equivalent to {@code restart(null)}.
+   *
+   * @throws StaticIllegalStateException when this {@code Timer} has been
+   *         <em>destroyed</em>.
+   *
+   * @since RTSJ 2.1
+   */
+  public void restart() throws StaticIllegalStateException
+  {
+    restart(null);
   }
 
   /**
@@ -575,8 +1117,15 @@ public abstract class Timer
    * @deprecated since RTSJ 2.0
    */
   @Deprecated
-  public void destroy() throws StaticIllegalStateException
+  public synchronized void destroy() throws StaticIllegalStateException
   {
+    checkNotDestroyed();
+    stop();
+    if (registered_ != null)
+      {
+        registered_.deregister(this);
+      }
+    destroyed_ = true;
   }
 
   /**
@@ -597,5 +1146,7 @@ public abstract class Timer
   public void bindTo(String happening)
     throws StaticUnsupportedOperationException
   {
+    throw StaticUnsupportedOperationException.get().
+      init("Timers cannot be bound to happenings");
   }
 }
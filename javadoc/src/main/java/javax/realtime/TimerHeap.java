@@ -0,0 +1,174 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+/**
+ * A binary min-heap of timers ordered by their fire times.  Each timer
+ * records its index in the heap, so that it can be removed without a
+ * search.  Fire times are values of {@code System.nanoTime()} and are
+ * compared by their difference, as that method requires.  The heap is
+ * not synchronized; it is guarded by its {@link TimerWheel}.
+ */
+final class TimerHeap
+{
+  private static final int _INITIAL_CAPACITY_ = 64;
+
+  /** The value of {@code Timer.slot_} for timers in this heap. */
+  private final int marker_;
+
+  private Timer[] timers_ = new Timer[_INITIAL_CAPACITY_];
+  private int size_;
+
+  /**
+   * Creates an empty heap.
+   *
+   * @param marker the value stored in the slot of each member.
+   */
+  TimerHeap(int marker)
+  {
+    marker_ = marker;
+  }
+
+  boolean isEmpty()
+  {
+    return size_ == 0;
+  }
+
+  int size()
+  {
+    return size_;
+  }
+
+  /**
+   * Gets the timer that fires first without removing it.
+   *
+   * @return the first timer or {@code null} when empty.
+   */
+  Timer peek()
+  {
+    return size_ == 0 ? null : timers_[0];
+  }
+
+  /**
+   * Removes the timer that fires first.
+   *
+   * @return the removed timer or {@code null} when empty.
+   */
+  Timer poll()
+  {
+    if (size_ == 0)
+      {
+        return null;
+      }
+    Timer first = timers_[0];
+    removeAt(0);
+    return first;
+  }
+
+  /**
+   * Inserts {@code timer}, which must not be in any heap or bucket.
+   *
+   * @param timer the timer to add.
+   */
+  void add(Timer timer)
+  {
+    if (size_ == timers_.length)
+      {
+        Timer[] timers = new Timer[size_ << 1];
+        System.arraycopy(timers_, 0, timers, 0, size_);
+        timers_ = timers;
+      }
+    timer.slot_ = marker_;
+    siftUp(size_++, timer);
+  }
+
+  /**
+   * Removes {@code timer}, which must be in this heap.
+   *
+   * @param timer the timer to remove.
+   */
+  void remove(Timer timer)
+  {
+    removeAt(timer.heap_index_);
+  }
+
+  /**
+   * Restores the order after the fire time of {@code timer}, which must
+   * be in this heap, has changed.
+   *
+   * @param timer the timer whose key changed.
+   */
+  void update(Timer timer)
+  {
+    int index = timer.heap_index_;
+    siftUp(index, timer);
+    if (timers_[index] == timer)
+      {
+        siftDown(index, timer);
+      }
+  }
+
+  private void removeAt(int index)
+  {
+    Timer removed = timers_[index];
+    removed.slot_ = TimerWheel.NONE;
+    removed.heap_index_ = -1;
+    int last = --size_;
+    Timer moved = timers_[last];
+    timers_[last] = null;
+    if (index != last)
+      {
+        siftDown(index, moved);
+        if (timers_[index] == moved)
+          {
+            siftUp(index, moved);
+          }
+      }
+  }
+
+  private void siftUp(int index, Timer timer)
+  {
+    while (index > 0)
+      {
+        int parent = (index - 1) >>> 1;
+        Timer above = timers_[parent];
+        if (timer.fire_nanos_ - above.fire_nanos_ >= 0)
+          {
+            break;
+          }
+        timers_[index] = above;
+        above.heap_index_ = index;
+        index = parent;
+      }
+    timers_[index] = timer;
+    timer.heap_index_ = index;
+  }
+
+  private void siftDown(int index, Timer timer)
+  {
+    int half = size_ >>> 1;
+    while (index < half)
+      {
+        int child = (index << 1) + 1;
+        Timer below = timers_[child];
+        int right = child + 1;
+        if (right < size_ &&
+            timers_[right].fire_nanos_ - below.fire_nanos_ < 0)
+          {
+            child = right;
+            below = timers_[right];
+          }
+        if (timer.fire_nanos_ - below.fire_nanos_ <= 0)
+          {
+            break;
+          }
+        timers_[index] = below;
+        below.heap_index_ = index;
+        index = child;
+      }
+    timers_[index] = timer;
+    timer.heap_index_ = index;
+  }
+}
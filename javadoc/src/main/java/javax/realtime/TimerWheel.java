@@ -0,0 +1,574 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The timer queue of a {@link TimeDispatcher} and the logic of its
+ * thread.  Time is divided into ticks of 2<sup>{@link #TICK_SHIFT}</sup>
+ * nanoseconds.  Timers due within the next 2<sup>26</sup> ticks, about
+ * two and a half hours, are kept in a hierarchical timing wheel of four
+ * levels, where adding and removing a timer are constant time
+ * operations.  Timers further in the future wait in a heap.
+ *
+ * <p> Each level only holds timers that share their slot of the next
+ * higher level with the current tick, so a slot never mixes timers of
+ * different rounds.  Whenever the current tick crosses into a new slot
+ * of a level, the timers of that slot are cascaded down to the lower
+ * levels.  Timers of the current tick move to a small heap of due
+ * timers, which orders them exactly, so that each timer fires at its
+ * own time rather than at the start of its tick.
+ *
+ * <p> A timer with a slack is moved to the latest multiple of the
+ * largest power of two not above its slack that lies within the slack.
+ * Timers with similar fire times thus end up with identical ones, even
+ * when their slacks differ, and fire in a single wakeup, in the order
+ * of their release priorities.
+ */
+final class TimerWheel implements Runnable
+{
+  /** Value of {@code Timer.slot_} for a timer not held by any wheel. */
+  static final int NONE = -1;
+
+  /** Value of {@code Timer.slot_} for a timer in the heap of due timers. */
+  static final int DUE = -2;
+
+  /** Value of {@code Timer.slot_} for a timer in the far future heap. */
+  static final int FAR = -3;
+
+  /** The length of a tick is 2^17 ns, about 131 us. */
+  static final int TICK_SHIFT = 17;
+
+  /*
+   * Level 0 has 256 slots of one tick, and levels 1 to 3 have 64 slots
+   * each of the whole span of the level below.  All slots are numbered
+   * consecutively in buckets_.
+   */
+  private static final int _LEVEL0_BITS_ = 8;
+  private static final int _LEVEL_BITS_ = 6;
+  private static final int _LEVEL0_SLOTS_ = 1 << _LEVEL0_BITS_;
+  private static final int _LEVEL_SLOTS_ = 1 << _LEVEL_BITS_;
+  private static final int _LEVELS_ = 4;
+  private static final int _BUCKETS_ =
+    _LEVEL0_SLOTS_ + (_LEVELS_ - 1) * _LEVEL_SLOTS_;
+
+  /** The wheel covers the 2^26 ticks sharing the bits above this many. */
+  private static final int _SPAN_BITS_ =
+    _LEVEL0_BITS_ + (_LEVELS_ - 1) * _LEVEL_BITS_;
+
+  /** Heads of the doubly linked lists of timers in each slot. */
+  private final Timer[] buckets_ = new Timer[_BUCKETS_];
+
+  /** One bit per bucket telling whether it is not empty. */
+  private final long[] occupied_ = new long[_BUCKETS_ >> 6];
+
+  private final TimerHeap due_ = new TimerHeap(DUE);
+  private final TimerHeap far_ = new TimerHeap(FAR);
+
+  /** The last tick processed; the wheel holds timers of later ticks. */
+  private long tick_;
+
+  /** The number of timers in the buckets. */
+  private int count_;
+
+  /** The time up to which the dispatching thread is parked. */
+  private long wake_at_;
+
+  /**
+   * Whether the dispatching thread is parked with no time to wake, in
+   * which case {@code wake_at_} has no meaning.
+   */
+  private boolean parked_;
+
+  private volatile Thread thread_;
+  private boolean destroyed_;
+
+  /** The timers due in one wakeup and their fire times. */
+  private Timer[] batch_ = new Timer[16];
+  private long[] batch_nanos_ = new long[16];
+
+  /** Sort keys of the batch, combining priority and position. */
+  private long[] batch_keys_ = new long[16];
+
+  TimerWheel()
+  {
+    tick_ = System.nanoTime() >> TICK_SHIFT;
+  }
+
+  /**
+   * Adds {@code timer} to fire at its {@code fire_nanos_} and wakes the
+   * dispatching thread when it fires earlier than planned.
+   *
+   * @param timer a timer that is not in any wheel.
+   */
+  synchronized void add(Timer timer)
+  {
+    timer.fire_nanos_ = coalesce(timer.fire_nanos_, timer.slack_nanos_);
+    insert(timer);
+    wakeFor(timer.fire_nanos_);
+  }
+
+  /**
+   * Removes {@code timer} from the wheel, when it is in it.
+   *
+   * @param timer the timer to remove.
+   */
+  synchronized void remove(Timer timer)
+  {
+    unlink(timer);
+  }
+
+  /**
+   * Moves {@code timer} to fire at {@code fireNanos} instead.  When the
+   * new time belongs to the same slot, the timer stays where it is, or
+   * is sifted within its heap, so that timers that are re-armed over
+   * and over again before they fire are never relinked.
+   *
+   * @param timer a timer that may or may not be in the wheel.
+   * @param fireNanos the new fire time.
+   */
+  synchronized void move(Timer timer, long fireNanos)
+  {
+    fireNanos = coalesce(fireNanos, timer.slack_nanos_);
+    int slot = timer.slot_;
+    if (slot != NONE && slot == place(fireNanos))
+      {
+        timer.fire_nanos_ = fireNanos;
+        if (slot == DUE)
+          {
+            due_.update(timer);
+          }
+        else if (slot == FAR)
+          {
+            far_.update(timer);
+          }
+      }
+    else
+      {
+        unlink(timer);
+        timer.fire_nanos_ = fireNanos;
+        insert(timer);
+      }
+    wakeFor(fireNanos);
+  }
+
+  /**
+   * Stops the dispatching thread.
+   */
+  synchronized void destroy()
+  {
+    destroyed_ = true;
+    Thread thread = thread_;
+    if (thread != null)
+      {
+        LockSupport.unpark(thread);
+      }
+  }
+
+  /**
+   * Delays {@code fireNanos} by at most {@code slack} to the latest
+   * multiple of the largest power of two not above {@code slack}.
+   */
+  private static long coalesce(long fireNanos, long slack)
+  {
+    return slack <= 0L ?
+      fireNanos : (fireNanos + slack) & -Long.highestOneBit(slack);
+  }
+
+  private void wakeFor(long fireNanos)
+  {
+    Thread thread = thread_;
+    if (thread != null && (parked_ || fireNanos - wake_at_ < 0))
+      {
+        parked_ = false;
+        wake_at_ = fireNanos;
+        LockSupport.unpark(thread);
+      }
+  }
+
+  private void insert(Timer timer)
+  {
+    int slot = place(timer.fire_nanos_);
+    if (slot >= 0)
+      {
+        link(timer, slot);
+      }
+    else if (slot == DUE)
+      {
+        due_.add(timer);
+      }
+    else
+      {
+        far_.add(timer);
+      }
+  }
+
+  /**
+   * Determines where a timer firing at {@code fireNanos} belongs
+   * relative to the current tick.
+   *
+   * @return the bucket, {@link #DUE} or {@link #FAR}.
+   */
+  private int place(long fireNanos)
+  {
+    long tick = fireNanos >> TICK_SHIFT;
+    long current = tick_;
+    if (tick - current <= 0)
+      {
+        return DUE;
+      }
+    if ((tick >> _LEVEL0_BITS_) == (current >> _LEVEL0_BITS_))
+      {
+        return (int)tick & (_LEVEL0_SLOTS_ - 1);
+      }
+    if ((tick >> _SPAN_BITS_) == (current >> _SPAN_BITS_))
+      {
+        int level = 1;
+        int shift = _LEVEL0_BITS_ + _LEVEL_BITS_;
+        while ((tick >> shift) != (current >> shift))
+          {
+            level++;
+            shift += _LEVEL_BITS_;
+          }
+        return bucket(level, tick);
+      }
+    return FAR;
+  }
+
+  /**
+   * Determines the bucket of {@code tick} in {@code level}, which must
+   * be at least one.
+   */
+  private static int bucket(int level, long tick)
+  {
+    int shift = _LEVEL0_BITS_ + (level - 1) * _LEVEL_BITS_;
+    return _LEVEL0_SLOTS_ + (level - 1) * _LEVEL_SLOTS_ +
+      ((int)(tick >> shift) & (_LEVEL_SLOTS_ - 1));
+  }
+
+  private void link(Timer timer, int bucket)
+  {
+    Timer head = buckets_[bucket];
+    timer.prev_ = null;
+    timer.next_ = head;
+    if (head != null)
+      {
+        head.prev_ = timer;
+      }
+    buckets_[bucket] = timer;
+    occupied_[bucket >> 6] |= 1L << bucket;
+    timer.slot_ = bucket;
+    count_++;
+  }
+
+  private void unlink(Timer timer)
+  {
+    int slot = timer.slot_;
+    if (slot >= 0)
+      {
+        Timer next = timer.next_;
+        Timer prev = timer.prev_;
+        if (next != null)
+          {
+            next.prev_ = prev;
+          }
+        if (prev != null)
+          {
+            prev.next_ = next;
+          }
+        else
+          {
+            buckets_[slot] = next;
+            if (next == null)
+              {
+                occupied_[slot >> 6] &= ~(1L << slot);
+              }
+          }
+        timer.next_ = null;
+        timer.prev_ = null;
+        timer.slot_ = NONE;
+        count_--;
+      }
+    else if (slot == DUE)
+      {
+        due_.remove(timer);
+      }
+    else if (slot == FAR)
+      {
+        far_.remove(timer);
+      }
+  }
+
+  /**
+   * Removes all timers of {@code bucket} and inserts them anew relative
+   * to the current tick.
+   */
+  private void cascade(int bucket)
+  {
+    Timer timer = buckets_[bucket];
+    if (timer != null)
+      {
+        buckets_[bucket] = null;
+        occupied_[bucket >> 6] &= ~(1L << bucket);
+        while (timer != null)
+          {
+            Timer next = timer.next_;
+            timer.next_ = null;
+            timer.prev_ = null;
+            timer.slot_ = NONE;
+            count_--;
+            insert(timer);
+            timer = next;
+          }
+      }
+  }
+
+  /**
+   * Moves the timers of the far future heap that now fit into the wheel.
+   */
+  private void refill()
+  {
+    Timer timer = far_.peek();
+    while (timer != null &&
+           ((timer.fire_nanos_ >> TICK_SHIFT) >> _SPAN_BITS_) -
+           (tick_ >> _SPAN_BITS_) <= 0)
+      {
+        far_.poll();
+        insert(timer);
+        timer = far_.peek();
+      }
+  }
+
+  /**
+   * Processes all ticks up to {@code target}, so that all timers of
+   * those ticks are in the heap of due timers.
+   */
+  private void advance(long target)
+  {
+    while (tick_ - target < 0)
+      {
+        if (count_ == 0)
+          {
+            tick_ = target;
+            refill();
+            return;
+          }
+        long next = nextEvent();
+        if (next - target > 0)
+          {
+            tick_ = target;
+            return;
+          }
+        tick_ = next;
+        if ((next & (_LEVEL0_SLOTS_ - 1)) == 0)
+          {
+            enterBlock();
+          }
+        cascade((int)tick_ & (_LEVEL0_SLOTS_ - 1));
+      }
+  }
+
+  /**
+   * Finds the next tick whose timers must be fired or cascaded.  This is
+   * the next occupied level 0 slot, or else the start of the first
+   * occupied slot of the lowest level with any.  The ticks up to that
+   * one hold no timers and need not be processed one by one.  Since
+   * each level only holds timers after the current tick, the lowest
+   * occupied slot of a level is its earliest one.
+   *
+   * @return the tick, which is only meaningful when {@code count_} is
+   *         not zero.
+   */
+  private long nextEvent()
+  {
+    long block = tick_ & -_LEVEL0_SLOTS_;
+    int slot = nextOccupied((int)(tick_ - block) + 1);
+    if (slot >= 0)
+      {
+        return block + slot;
+      }
+    for (int level = 1; level < _LEVELS_; level++)
+      {
+        long bits = occupied_[(_LEVEL0_SLOTS_ >> 6) + level - 1];
+        if (bits != 0L)
+          {
+            int shift = _LEVEL0_BITS_ + (level - 1) * _LEVEL_BITS_;
+            long above = tick_ >> (shift + _LEVEL_BITS_);
+            return ((above << _LEVEL_BITS_) +
+                    Long.numberOfTrailingZeros(bits)) << shift;
+          }
+      }
+    return block + _LEVEL0_SLOTS_;
+  }
+
+  /**
+   * Cascades the slots of all levels that the current tick, the first
+   * of a new level 0 block, has just entered.
+   */
+  private void enterBlock()
+  {
+    if ((tick_ & ((1L << _SPAN_BITS_) - 1)) == 0)
+      {
+        refill();
+      }
+    for (int level = _LEVELS_ - 1; level > 0; level--)
+      {
+        int shift = _LEVEL0_BITS_ + (level - 1) * _LEVEL_BITS_;
+        if ((tick_ & ((1L << shift) - 1)) == 0)
+          {
+            cascade(bucket(level, tick_));
+          }
+      }
+  }
+
+  /**
+   * Finds the first occupied level 0 slot from {@code from} on.
+   *
+   * @return the slot or -1 when there is none.
+   */
+  private int nextOccupied(int from)
+  {
+    for (int word = from >> 6; word < (_LEVEL0_SLOTS_ >> 6); word++)
+      {
+        long bits = occupied_[word];
+        if (word == from >> 6)
+          {
+            bits &= -1L << from;
+          }
+        if (bits != 0)
+          {
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+          }
+      }
+    return -1;
+  }
+
+  /**
+   * Determines when the dispatching thread must wake next to keep the
+   * wheel up to date, ignoring the heap of due timers.
+   *
+   * @return the time to wake, or {@code now} plus {@code Long.MAX_VALUE}
+   *         when no timer is pending.
+   */
+  private long nextTick(long now)
+  {
+    if (count_ == 0)
+      {
+        Timer far = far_.peek();
+        if (far == null)
+          {
+            return now + Long.MAX_VALUE;
+          }
+        long span = (far.fire_nanos_ >> TICK_SHIFT) >> _SPAN_BITS_;
+        return span << (_SPAN_BITS_ + TICK_SHIFT);
+      }
+    return nextEvent() << TICK_SHIFT;
+  }
+
+  /**
+   * Runs the dispatching loop until the wheel is destroyed.
+   */
+  @Override
+  public void run()
+  {
+    thread_ = Thread.currentThread();
+    while (true)
+      {
+        int count = 0;
+        long wait = 0L;
+        synchronized (this)
+          {
+            if (destroyed_)
+              {
+                thread_ = null;
+                return;
+              }
+            long now = System.nanoTime();
+            advance(now >> TICK_SHIFT);
+            Timer first = due_.peek();
+            while (first != null && first.fire_nanos_ - now <= 0)
+              {
+                due_.poll();
+                addToBatch(count++, first);
+                first = due_.peek();
+              }
+            if (count == 0)
+              {
+                long wake = nextTick(now);
+                if (first != null && first.fire_nanos_ - wake < 0)
+                  {
+                    wake = first.fire_nanos_;
+                  }
+                wake_at_ = wake;
+                wait = wake - now;
+                parked_ = wait == Long.MAX_VALUE;
+              }
+          }
+        if (count > 0)
+          {
+            expireBatch(count);
+          }
+        else if (wait == Long.MAX_VALUE)
+          {
+            LockSupport.park(this);
+          }
+        else
+          {
+            LockSupport.parkNanos(this, wait);
+          }
+      }
+  }
+
+  private void addToBatch(int index, Timer timer)
+  {
+    if (index == batch_.length)
+      {
+        int length = index << 1;
+        Timer[] batch = new Timer[length];
+        long[] nanos = new long[length];
+        System.arraycopy(batch_, 0, batch, 0, index);
+        System.arraycopy(batch_nanos_, 0, nanos, 0, index);
+        batch_ = batch;
+        batch_nanos_ = nanos;
+        batch_keys_ = new long[length];
+      }
+    batch_[index] = timer;
+    batch_nanos_[index] = timer.fire_nanos_;
+  }
+
+  /**
+   * Expires the first {@code count} timers of the batch, those whose
+   * handlers have the highest priority first and otherwise in the order
+   * of their fire times.  This is done without holding the lock, so
+   * that the timers can re-arm themselves.
+   */
+  private void expireBatch(int count)
+  {
+    Timer[] batch = batch_;
+    long[] nanos = batch_nanos_;
+    if (count == 1)
+      {
+        Timer timer = batch[0];
+        batch[0] = null;
+        timer.expire(nanos[0]);
+        return;
+      }
+    long[] keys = batch_keys_;
+    for (int i = 0; i < count; i++)
+      {
+        keys[i] = (long)~batch[i].getReleasePriority() << 32 | i;
+      }
+    Arrays.sort(keys, 0, count);
+    for (int i = 0; i < count; i++)
+      {
+        int index = (int)keys[i];
+        Timer timer = batch[index];
+        batch[index] = null;
+        timer.expire(nanos[index]);
+      }
+  }
+}
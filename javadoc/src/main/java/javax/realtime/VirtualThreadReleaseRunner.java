@@ -0,0 +1,342 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ReleaseRunner} for handlers that are not time critical and
+ * may use the heap, such as handlers that block on I/O.  Their
+ * releases run on virtual threads rather than on realtime threads, so
+ * that they do not occupy the workers of a
+ * {@link FirstInFirstOutReleaseRunner}.
+ *
+ * <p> A thread is started when a handler is released while none of its
+ * releases is running.  It keeps running the handler as long as further
+ * releases arrive, so the releases of a handler never overlap and stay
+ * in order; there is one thread per busy period of a handler rather than
+ * one per release, since each run of a handler handles all of its
+ * pending releases.  This runner does not bound the pending releases
+ * itself: the fire count and, for handlers with a payload, the event
+ * queue of the handler, with the queue length and overflow policy of
+ * its release parameters, do that.
+ *
+ * <p> A handler uses this runner when it is given to its constructor,
+ * e.g., {@link AsyncEventHandler#AsyncEventHandler(SchedulingParameters,
+ * ReleaseParameters, MemoryParameters, MemoryArea,
+ * ConfigurationParameters, ReleaseRunner, Runnable)}; it is attached with the first release and each release
+ * counted afterwards is handed to {@link #release(ReleaseRunner.Proxy)}.
+ *
+ * <p> The platform is targeted at Java 8, which has no virtual threads.
+ * When the running virtual machine provides
+ * {@code Thread.startVirtualThread}, it is used; otherwise, releases run
+ * on a cached pool of ordinary daemon threads, which grows with the
+ * number of handlers running at the same time.
+ *
+ * @since RTSJ 2.1
+ */
+public class VirtualThreadReleaseRunner extends ReleaseRunner
+{
+  private static final MethodHandle START_VIRTUAL = findStartVirtual();
+
+  /** The threads used when there are no virtual threads. */
+  private static ExecutorService _fallback_;
+
+  private final ConfigurationParameters config_;
+  private final RealtimeThreadGroup group_;
+
+  /**
+   * The release state of each attached handler, and of each detached
+   * handler whose last release is still running.
+   */
+  private final ConcurrentHashMap<Proxy, Releases> releases_ =
+    new ConcurrentHashMap<>();
+
+  /**
+   * Creates a release runner that runs each handler on a thread of its
+   * own while it has releases pending.
+   *
+   * @param config the parameters reported for all handlers run by this
+   *        runner.
+   *
+   * @param group the group reported for all handlers run by this runner.
+   */
+  public VirtualThreadReleaseRunner(ConfigurationParameters config,
+                                    RealtimeThreadGroup group)
+  {
+    super(group);
+    config_ = config;
+    group_ = group;
+  }
+
+  /**
+   * Same as
+   * {@link #VirtualThreadReleaseRunner(ConfigurationParameters, RealtimeThreadGroup)}
+   * with arguments {@code (config, null)}.
+   */
+  public VirtualThreadReleaseRunner(ConfigurationParameters config)
+  {
+    this(config, null);
+  }
+
+  private static MethodHandle findStartVirtual()
+  {
+    try
+      {
+        return MethodHandles.publicLookup().
+          findStatic(Thread.class, "startVirtualThread",
+                     MethodType.methodType(Thread.class, Runnable.class));
+      }
+    catch (ReflectiveOperationException e)
+      {
+        return null;
+      }
+  }
+
+  private static synchronized ExecutorService fallback()
+  {
+    if (_fallback_ == null)
+      {
+        _fallback_ = Executors.newCachedThreadPool(task ->
+          {
+            Thread thread = new Thread(task, "Heap Release Runner");
+            thread.setDaemon(true);
+            return thread;
+          });
+      }
+    return _fallback_;
+  }
+
+  @Override
+  protected RealtimeThreadGroup getRealtimeThreadGroup() { return group_; }
+
+  @Override
+  public ConfigurationParameters getConfigurationParameters()
+  {
+    return config_;
+  }
+
+  /**
+   * Runs {@code handler} on a new thread unless one of its releases is
+   * already running, in which case it is run again afterwards.
+   *
+   * @param handler The handler to be released.
+   *
+   * @throws StaticIllegalStateException when {@code handler} is not
+   *         attached.
+   */
+  @Override
+  protected void release(Proxy handler)
+  {
+    Releases releases = releases_.get(handler);
+    if (releases == null || !releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is not attached");
+      }
+    if (releases.request())
+      {
+        start(releases);
+      }
+  }
+
+  private static void start(Runnable task)
+  {
+    if (START_VIRTUAL != null)
+      {
+        try
+          {
+            START_VIRTUAL.invoke(task);
+          }
+        catch (Throwable e)
+          {
+            throw new InternalError(e.toString());
+          }
+      }
+    else
+      {
+        fallback().execute(task);
+      }
+  }
+
+  /**
+   * Attaches a handler that may use the heap.
+   *
+   * @param handler to be attached.
+   *
+   * @throws StaticIllegalArgumentException When {@code handler} is
+   *         {@code null} or may not use the heap.
+   *
+   * @throws StaticIllegalStateException when {@code handler} is already
+   *         attached.
+   */
+  @Override
+  protected void attach(Proxy handler)
+    throws StaticIllegalStateException
+  {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    AsyncBaseEventHandler target = handler.getHandler();
+    if (target != null && !target.mayUseHeap())
+      {
+        throw StaticIllegalArgumentException.get().
+          init("handler may not use the heap");
+      }
+    synchronized (this)
+      {
+        Releases releases = releases_.get(handler);
+        if (releases == null)
+          {
+            releases_.put(handler, new Releases(handler));
+          }
+        else if (releases.attached_)
+          {
+            throw StaticIllegalStateException.get().
+              init("handler is already attached");
+          }
+        else
+          {
+            // its last release may still run, so keep it from overlapping
+            releases.attached_ = true;
+          }
+      }
+  }
+
+  /**
+   * Detaches a handler.  A release that is running completes, but
+   * pending releases are not run anymore.
+   *
+   * @param handler to be detached.
+   *
+   * @throws StaticIllegalArgumentException When {@code handler} is null
+   *
+   * @throws StaticIllegalStateException when {@code handler} is not
+   *         attached.
+   */
+  @Override
+  protected void detach(Proxy handler)
+    throws StaticIllegalStateException
+  {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    synchronized (this)
+      {
+        Releases releases = releases_.get(handler);
+        if (releases == null || !releases.attached_)
+          {
+            throw StaticIllegalStateException.get().
+              init("handler is not attached");
+          }
+        releases.attached_ = false;
+        releases.retire();
+      }
+  }
+
+  /**
+   * The releases of one handler.  {@code state_} is {@code IDLE} while
+   * no thread runs the handler, {@code RUNNING} while one does, and
+   * {@code REQUESTED} when a release arrived while it does, so that the
+   * thread runs the handler again.  The state of a detached handler is
+   * kept until its thread has finished, so that attaching the handler
+   * again reuses it and a new thread never overlaps the old one.
+   */
+  private final class Releases implements Runnable
+  {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int REQUESTED = 2;
+
+    private final Proxy handler_;
+    private final AtomicInteger state_ = new AtomicInteger(IDLE);
+
+    /** Whether the handler is attached, only changed under the runner. */
+    volatile boolean attached_ = true;
+
+    Releases(Proxy handler)
+    {
+      handler_ = handler;
+    }
+
+    /**
+     * Records a release.
+     *
+     * @return {@code true} when a thread must be started to run it.
+     */
+    boolean request()
+    {
+      while (true)
+        {
+          int state = state_.get();
+          if (state == REQUESTED ||
+              state_.compareAndSet(state, state == IDLE ? RUNNING : REQUESTED))
+            {
+              return state == IDLE;
+            }
+        }
+    }
+
+    /**
+     * Forgets a detached handler once no thread runs it.  The caller
+     * holds the lock on the runner.
+     */
+    void retire()
+    {
+      if (!attached_ && state_.get() == IDLE)
+        {
+          releases_.remove(handler_, this);
+        }
+    }
+
+    /**
+     * Runs the handler until no release arrived during its last run.
+     * The handler reports exceptions itself.  When it throws an error,
+     * which ends the thread, a release that arrived meanwhile is run on
+     * a new thread.
+     */
+    @Override
+    public void run()
+    {
+      boolean completed = false;
+      try
+        {
+          do
+            {
+              state_.set(RUNNING);
+              if (attached_)
+                {
+                  handler_.run();
+                }
+            }
+          while (!state_.compareAndSet(RUNNING, IDLE));
+          completed = true;
+        }
+      finally
+        {
+          if (!completed && state_.getAndSet(IDLE) == REQUESTED &&
+              attached_ && request())
+            {
+              start(this);
+            }
+          if (!attached_)
+            {
+              synchronized (VirtualThreadReleaseRunner.this)
+                {
+                  retire();
+                }
+            }
+        }
+    }
+  }
+}
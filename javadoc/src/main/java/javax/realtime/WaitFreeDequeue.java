@@ -40,6 +40,9 @@ import javax.realtime.control.AsynchronouslyInterruptedException;
 @Deprecated
 public class WaitFreeDequeue
 {
+  private final WaitFreeReadQueue<Object> readQueue_;
+  private final WaitFreeWriteQueue<Object> writeQueue_;
+
   /**
    * Constructs a queue, in {@code memory}, with an underlying
    * {@link WaitFreeWriteQueue} and {@link WaitFreeReadQueue}, each of
@@ -101,6 +104,10 @@ public class WaitFreeDequeue
                           int maximum,
                           MemoryArea memory)
   {
+    readQueue_ =
+      new WaitFreeReadQueue<Object>(writer, reader, maximum, memory, false);
+    writeQueue_ =
+      new WaitFreeWriteQueue<Object>(writer, reader, maximum, memory);
   }
 
 
@@ -115,7 +122,7 @@ public class WaitFreeDequeue
    */
   public Object nonBlockingRead()
   {
-    return new Object();
+    return readQueue_.read();
   }
 
   /**
@@ -140,7 +147,9 @@ public class WaitFreeDequeue
    *      this method <em>always</em> returned {@code true}, and
    *      added InterruptedException.
    */
-  public void blockingWrite(Object object) throws InterruptedException{
+  public void blockingWrite(Object object) throws InterruptedException
+  {
+    readQueue_.write(object);
   }
 
   /**
@@ -160,7 +169,7 @@ public class WaitFreeDequeue
    */
   public boolean nonBlockingWrite(Object object)
   {
-    return true;
+    return writeQueue_.write(object);
   }
 
   /**
@@ -180,7 +189,7 @@ public class WaitFreeDequeue
    */
   public Object blockingRead() throws InterruptedException
   {
-    return new Object();
+    return writeQueue_.read();
   }
 
   /**
@@ -201,6 +210,6 @@ public class WaitFreeDequeue
    */
   public boolean force(Object object)
   {
-    return true;
+    return writeQueue_.force(object);
   }
 }
@@ -4,6 +4,10 @@
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
 import javax.realtime.control.AsynchronouslyInterruptedException;
 
 /**
@@ -41,6 +45,12 @@ import javax.realtime.control.AsynchronouslyInterruptedException;
  * queue that has been constructed with a {@code notify} parameter
  * set to {@code true}.
  *
+ * <p> When many writers feed a single reader, the queue can be
+ * constructed in <em>multiple writer</em> mode, in which {@code write}
+ * is not synchronized; instead, each writer claims a position in the
+ * queue with an atomic update, so that writers do not serialize on
+ * the queue's monitor.
+ *
  * <P> {@code WaitFreeReadQueue} is one of the classes enabling
  * instances of {@code Schedulable} that may not use the heap and
  * conventional Java threads to synchronize on an object without the risk of
@@ -66,6 +76,31 @@ import javax.realtime.control.AsynchronouslyInterruptedException;
  */
 public class WaitFreeReadQueue<T>
 {
+  /*
+   * The queue is a ring indexed by two monotonically increasing
+   * sequences: writers claim positions by advancing tail_ and the
+   * reader consumes them by advancing head_.  Each slot carries its own
+   * sequence in sequences_: it equals the position a writer may claim
+   * next, becomes position + 1 once the element is stored, and position
+   * + ring length once the reader has taken it.  Thus the reader never
+   * sees a claimed but unwritten slot, and a claimed slot is never
+   * reused before the reader has emptied it.
+   */
+  private final AtomicReferenceArray<T> slots_;
+  private final AtomicLongArray sequences_;
+  private final int mask_;
+  private final int maximum_;
+  private final boolean notify_;
+  private final boolean multiWriter_;
+  private final PaddedSequence head_ = new PaddedSequence(0L);
+  private final PaddedSequence tail_ = new PaddedSequence(0L);
+
+  /** The reader currently parked in waitForData(), if any. */
+  private volatile Thread waiter_;
+
+  /** Upper bound for the pause of a writer waiting on a full queue. */
+  private static final long _MAX_BACKOFF_NANOS_ = 1000000L;
+
   /**
    * Constructs a queue containing up to {@code maximum}
    * elements in {@code memory}.  The queue has an unsynchronized and
@@ -130,6 +165,87 @@ public class WaitFreeReadQueue<T>
            MemoryScopeException,
            InaccessibleAreaException
   {
+    this(writer, reader, maximum, memory, notify, false);
+  }
+
+  /**
+   * Constructs a queue containing up to {@code maximum} elements in
+   * {@code memory}, which may optionally be written by multiple writers
+   * without synchronization.  The {@code read()} method is always
+   * unsynchronized and nonblocking.  When {@code multiWriter} is
+   * {@code false}, {@code write()} is synchronized and blocking, as for
+   * {@link #WaitFreeReadQueue(Runnable, Runnable, int, MemoryArea, boolean)}.
+   * Otherwise, {@code write()} is blocking but not synchronized: each
+   * writer claims its position in the queue atomically, so concurrent
+   * writers only contend for the cache line holding that position.
+   *
+   * @param writer An instance of {@code Runnable} or {@code null}.
+   *
+   * @param reader An instance of {@code Runnable} or {@code null}.
+   *
+   * @param maximum The maximum number of elements in the queue.
+   *
+   * @param memory The {@link MemoryArea} in which internal elements are
+   *          allocated.
+   *
+   * @param notify A flag that establishes
+   *          whether a reader is notified when the queue becomes non-empty.
+   *
+   * @param multiWriter A flag that establishes whether writers claim
+   *          positions atomically instead of synchronizing on the queue.
+   *
+   * @throws StaticIllegalArgumentException when an argument holds an
+   *          invalid value, as for
+   *          {@link #WaitFreeReadQueue(Runnable, Runnable, int, MemoryArea, boolean)}.
+   *
+   * @throws InaccessibleAreaException when {@code memory} is a scoped
+   *         memory that is not on the caller's scope stack.
+   *
+   * @throws MemoryScopeException when
+   *          either {@code reader} or {@code writer}
+   *          is non-null and the {@code memory} argument is not
+   *          compatible with {@code reader} and
+   *          {@code writer} with respect to the assignment
+   *          and access rules for memory areas.
+   *
+   * @since RTSJ 2.1
+   */
+  public WaitFreeReadQueue(Runnable writer,
+                           Runnable reader,
+                           int maximum,
+                           MemoryArea memory,
+                           boolean notify,
+                           boolean multiWriter)
+    throws StaticIllegalArgumentException,
+           MemoryScopeException,
+           InaccessibleAreaException
+  {
+    checkParticipant(writer, "writer");
+    checkParticipant(reader, "reader");
+    if (maximum <= 0 || maximum > (1 << 30))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid maximum " + maximum);
+      }
+    int length = maximum == 1 ? 1 : Integer.highestOneBit(maximum - 1) << 1;
+    if (memory == null)
+      {
+        slots_ = new AtomicReferenceArray<T>(length);
+        sequences_ = new AtomicLongArray(length);
+      }
+    else
+      {
+        slots_ = memory.executeInArea(() -> new AtomicReferenceArray<T>(length));
+        sequences_ = memory.executeInArea(() -> new AtomicLongArray(length));
+      }
+    for (int i = 0; i < length; i++)
+      {
+        sequences_.set(i, i);
+      }
+    mask_ = length - 1;
+    maximum_ = maximum;
+    notify_ = notify;
+    multiWriter_ = multiWriter;
   }
 
   /**
@@ -149,6 +265,7 @@ public class WaitFreeReadQueue<T>
            MemoryScopeException,
            InaccessibleAreaException
   {
+    this(writer, reader, maximum, memory, false, false);
   }
 
   /**
@@ -165,6 +282,7 @@ public class WaitFreeReadQueue<T>
   public WaitFreeReadQueue(int maximum, MemoryArea memory, boolean notify)
     throws StaticIllegalArgumentException, InaccessibleAreaException
   {
+    this(null, null, maximum, memory, notify, false);
   }
 
 
@@ -183,6 +301,18 @@ public class WaitFreeReadQueue<T>
   public WaitFreeReadQueue(int maximum, boolean notify)
     throws StaticIllegalArgumentException
   {
+    this(null, null, maximum, null, notify, false);
+  }
+
+  private static void checkParticipant(Runnable participant, String role)
+  {
+    if (participant != null &&
+        !(participant instanceof Thread) &&
+        !(participant instanceof Schedulable))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid " + role + " " + participant);
+      }
   }
 
   /**
@@ -192,7 +322,10 @@ public class WaitFreeReadQueue<T>
    *      Invoking {@code clear} concurrently with {@code read}
    *      or {@code write} can lead to unexpected results.
    */
-  public void clear() {}
+  public void clear()
+  {
+    while (read() != null) {}
+  }
 
   /**
    * Queries the queue to determine if {@code this} is empty.
@@ -207,7 +340,7 @@ public class WaitFreeReadQueue<T>
    */
   public boolean isEmpty()
   {
-    return true;
+    return tail_.get() == head_.get();
   }
 
   /**
@@ -222,7 +355,7 @@ public class WaitFreeReadQueue<T>
    */
   public boolean isFull()
   {
-    return true;
+    return tail_.get() - head_.get() >= maximum_;
   }
 
   /**
@@ -236,7 +369,17 @@ public class WaitFreeReadQueue<T>
    */
   public T read()
   {
-    return null;
+    long head = head_.get();
+    int index = (int)head & mask_;
+    if (sequences_.get(index) != head + 1)
+      {
+        return null;
+      }
+    T value = slots_.get(index);
+    slots_.lazySet(index, null);
+    sequences_.lazySet(index, head + mask_ + 1);
+    head_.setOrdered(head + 1);
+    return value;
   }
 
   /**
@@ -250,7 +393,8 @@ public class WaitFreeReadQueue<T>
    */
   public int size()
   {
-    return 0;
+    long head = head_.get();
+    return (int)Math.max(0L, Math.min(tail_.get() - head, maximum_));
   }
 
   /**
@@ -262,10 +406,13 @@ public class WaitFreeReadQueue<T>
    *      after {@code waitForData} and know that {@code read}
    *      will find the queue non-empty.
    * <p>
-   * <em>Implementation note,</em> to avoid reader and writer synchronizing on
-   *  the same object, the reader should not be notified directly by
-   *  a writer.  (This is the issue that the non-wait queue classes are
-   *  intended to solve).
+   * <em>Implementation note,</em> reader and writer never synchronize on
+   *  the same object: the reader parks without holding a monitor, and
+   *  the writer that stores the element it waits for unparks it
+   *  directly.  The writer thus pays for the wake-up, which is a read
+   *  of a volatile field on every write and, only while the reader is
+   *  parked, a call of {@code LockSupport.unpark}, i.e., a system
+   *  call on most platforms.
    *
    * @throws StaticUnsupportedOperationException when {@code this} has not
    *          been constructed with {@code notify} set to {@code true}.
@@ -283,11 +430,51 @@ public class WaitFreeReadQueue<T>
   public void waitForData()
     throws StaticUnsupportedOperationException, InterruptedException
   {
+    if (!notify_)
+      {
+        throw StaticUnsupportedOperationException.get().
+          init("Queue constructed without notify");
+      }
+    while (!hasData())
+      {
+        waiter_ = Thread.currentThread();
+        try
+          {
+            // Recheck after publishing waiter_, so that a write racing
+            // with the assignment above is not missed.
+            if (!hasData())
+              {
+                if (Thread.interrupted())
+                  {
+                    throw new InterruptedException();
+                  }
+                LockSupport.park(this);
+              }
+          }
+        finally
+          {
+            waiter_ = null;
+          }
+      }
+  }
+
+  /**
+   * Determines whether the element at the head has been stored, i.e.,
+   * whether {@link #read()} would succeed.
+   */
+  private boolean hasData()
+  {
+    long head = head_.get();
+    return sequences_.get((int)head & mask_) == head + 1;
   }
 
   /**
    * A synchronized and blocking write.  This call blocks on queue full and
-   * will wait until there is space in the queue.
+   * will wait until there is space in the queue.  When {@code this} was
+   * constructed in multiple writer mode, the write is not synchronized.
+   * When {@code this} was constructed with {@code notify} set and the
+   * reader is parked in {@link #waitForData()}, the write also unparks
+   * the reader.
    *
    * @param value The {@code java.lang.Object} that is placed in the queue.
    *
@@ -307,8 +494,90 @@ public class WaitFreeReadQueue<T>
    *        <em>always</em> returned` {@code true}, and
    *        {@code InterruptedException} was added to the throws clause.
    */
-  public synchronized void write(T value)
+  public void write(T value)
     throws MemoryScopeException, InterruptedException
   {
+    if (value == null)
+      {
+        throw StaticIllegalArgumentException.get().init("value is null");
+      }
+    if (multiWriter_)
+      {
+        put(value);
+      }
+    else
+      {
+        synchronized (this)
+          {
+            put(value);
+          }
+      }
+  }
+
+  /**
+   * Claims the next position, waiting while {@code this} is full, and
+   * stores {@code value} there.  The reader is never asked to wake a
+   * writer, so a writer waiting for room backs off exponentially
+   * instead.
+   */
+  private void put(T value) throws InterruptedException
+  {
+    long backoff = 0L;
+    while (true)
+      {
+        long tail = tail_.get();
+        int index = (int)tail & mask_;
+        long sequence = sequences_.get(index);
+        if (sequence == tail && tail - head_.get() < maximum_)
+          {
+            if (tail_.compareAndSet(tail, tail + 1))
+              {
+                slots_.lazySet(index, value);
+                publish(index, tail + 1);
+                return;
+              }
+          }
+        else if (sequence <= tail)
+          {
+            // Full: wait for the reader to make room.
+            if (Thread.interrupted())
+              {
+                throw new InterruptedException();
+              }
+            if (backoff == 0L)
+              {
+                Thread.yield();
+                backoff = 1000L;
+              }
+            else
+              {
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff << 1, _MAX_BACKOFF_NANOS_);
+              }
+          }
+        // Otherwise another writer claimed the position; try the next one.
+      }
+  }
+
+  /**
+   * Marks the slot at {@code index} as stored and wakes a reader
+   * waiting for data.  With notification, the sequence is written with a
+   * full fence, since it must be ordered before the read of waiter_.
+   */
+  private void publish(int index, long sequence)
+  {
+    if (notify_)
+      {
+        sequences_.set(index, sequence);
+        Thread waiter = waiter_;
+        if (waiter != null)
+          {
+            LockSupport.unpark(waiter);
+          }
+      }
+    else
+      {
+        sequences_.lazySet(index, sequence);
+      }
   }
 }
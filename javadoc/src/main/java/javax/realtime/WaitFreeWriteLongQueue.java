@@ -1,15 +1,46 @@
 /*-----------------------------------------------------------------------*\
- * Copyright 2016-2023, aicas GmbH; all rights reserved.
+ * Copyright 2016-2024, aicas GmbH; all rights reserved.
  * This header, including copyright notice, may not be altered or removed.
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.concurrent.locks.LockSupport;
+
 import javax.realtime.control.AsynchronouslyInterruptedException;
 
+/**
+ * A queue of primitive {@code long} values that is non-blocking for a
+ * single producer, analogous to {@link WaitFreeWriteQueue}, but without
+ * boxing.  Consumers are synchronized among each other and may take
+ * many elements at once with {@link #drainTo(long[], int, int)}.
+ */
 class WaitFreeWriteLongQueue
 {
-  private long[] elements_;
-  private int size_ = 0;
+  /*
+   * The elements live in a ring indexed by the monotonically increasing
+   * sequences tail_, owned by the writer, and head_, owned by the
+   * readers.  The ring is longer than maximum_, so the slot of the
+   * newest element is never reused before the readers advance head_
+   * past it.
+   *
+   * Since a long has no spare value to mark a taken slot, force() on a
+   * full queue coordinates with the readers through forced_, which is
+   * odd while the writer is deciding whether to overwrite the newest
+   * element in place.  A reader that published a new head_ while a
+   * force was pending rereads the newest element it took.
+   */
+  private final long[] elements_;
+  private final int mask_;
+  private final int maximum_;
+  private final PaddedSequence head_ = new PaddedSequence(0L);
+  private final PaddedSequence tail_ = new PaddedSequence(0L);
+  private final PaddedSequence forced_ = new PaddedSequence(0L);
+
+  /** Last value of head_ seen by the writer; only touched by the writer. */
+  private long head_cache_ = 0L;
+
+  /** The reader currently parked in read(), if any. */
+  private volatile Thread waiter_;
 
   /**
    * Constructs a queue containing up to {@code maximum}
@@ -18,19 +49,30 @@ class WaitFreeWriteLongQueue
    * synchronized and blocking {@code read()} method.
    *
    * @param maximum the maximum capacity of the queue.
+   *
+   * @throws StaticIllegalArgumentException when {@code maximum} is not
+   *         greater than zero.
    */
   public WaitFreeWriteLongQueue(int maximum)
     throws StaticIllegalArgumentException, InaccessibleAreaException
   {
-    elements_ = new long[maximum];
+    if (maximum <= 0 || maximum >= (1 << 30))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid maximum " + maximum);
+      }
+    int length = Integer.highestOneBit(maximum) << 1;
+    elements_ = new long[length];
+    mask_ = length - 1;
+    maximum_ = maximum;
   }
 
   /**
    * Sets {@code this} to empty.
    */
-  public void clear()
+  public synchronized void clear()
   {
-    size_ = 0;
+    head_.set(tail_.get());
   }
 
   /**
@@ -44,7 +86,7 @@ class WaitFreeWriteLongQueue
    */
   public boolean isEmpty()
   {
-    return size_ == 0;
+    return tail_.get() == head_.get();
   }
 
   /**
@@ -58,7 +100,7 @@ class WaitFreeWriteLongQueue
    */
   public boolean isFull()
   {
-    return size_ == elements_.length;
+    return tail_.get() - head_.get() >= maximum_;
   }
 
   /**
@@ -81,15 +123,128 @@ class WaitFreeWriteLongQueue
   {
     while (isEmpty())
       {
-        synchronized (this) { if (isEmpty()) { wait(); }}
+        waiter_ = Thread.currentThread();
+        try
+          {
+            // Recheck after publishing waiter_, so that a write racing
+            // with the assignment above is not missed.
+            if (isEmpty())
+              {
+                if (Thread.interrupted())
+                  {
+                    throw new InterruptedException();
+                  }
+                LockSupport.park(this);
+              }
+          }
+        finally
+          {
+            waiter_ = null;
+          }
       }
+    return take(null, 0, 1);
+  }
 
-    long result = elements_[0];
-    for (int i = 1; i < size_; i++) { elements_[i - 1] = elements_[i]; }
-    size_--;
-    return result;
+  /**
+   * Removes up to {@code max} elements from {@code this} without
+   * blocking and stores them in {@code dest}, starting at {@code off},
+   * least recently written first.  All elements are taken with a single
+   * update of the shared read position, so draining a batch is much
+   * cheaper than calling {@link #read()} for each element.
+   *
+   * @param dest the array to receive the elements.
+   *
+   * @param off the index in {@code dest} of the first element.
+   *
+   * @param max the maximum number of elements to take.
+   *
+   * @return the number of elements stored in {@code dest}, which is
+   *         zero when {@code this} is empty.
+   *
+   * @throws StaticIllegalArgumentException when {@code dest} is
+   *         {@code null}, {@code off} or {@code max} is negative, or
+   *         {@code dest} has less than {@code max} elements after
+   *         {@code off}.
+   */
+  public synchronized int drainTo(long[] dest, int off, int max)
+    throws StaticIllegalArgumentException
+  {
+    if (dest == null || off < 0 || max < 0 || max > dest.length - off)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid destination range");
+      }
+    long head = head_.get();
+    long available = tail_.get() - head;
+    int count = (int)Math.min(available, max);
+    if (count > 0)
+      {
+        take(dest, off, count);
+      }
+    return count;
+  }
+
+  /**
+   * Takes the {@code count} least recently written elements.  The caller
+   * must hold the lock on {@code this} and must have seen at least
+   * {@code count} elements in the queue.
+   *
+   * @param dest the array to receive the elements or {@code null} when
+   *        {@code count} is one and the element is only returned.
+   * @param off the index in {@code dest} of the first element.
+   * @param count the number of elements to take.
+   *
+   * @return the last element taken.
+   */
+  private long take(long[] dest, int off, int count)
+  {
+    long forced = awaitForced();
+    long head = head_.get();
+    long tail = tail_.get();
+    long end = head + count;
+    int first = (int)head & mask_;
+    long last;
+    if (dest == null)
+      {
+        last = elements_[first];
+      }
+    else
+      {
+        int chunk = Math.min(count, elements_.length - first);
+        System.arraycopy(elements_, first, dest, off, chunk);
+        System.arraycopy(elements_, 0, dest, off + chunk, count - chunk);
+        last = dest[off + count - 1];
+      }
+    head_.set(end);
+    if (end == tail && awaitForced() != forced)
+      {
+        // The writer may have overwritten the newest element after it was
+        // copied, having seen the old head, so copy it once more.
+        last = elements_[(int)(end - 1) & mask_];
+        if (dest != null)
+          {
+            dest[off + count - 1] = last;
+          }
+      }
+    return last;
   }
 
+  /**
+   * Waits until no {@code force()} is deciding what to overwrite.  The
+   * writer is never blocked by this; the reader only yields to it.
+   *
+   * @return the current, even value of {@code forced_}.
+   */
+  private long awaitForced()
+  {
+    long forced = forced_.get();
+    while ((forced & 1L) != 0)
+      {
+        Thread.yield();
+        forced = forced_.get();
+      }
+    return forced;
+  }
 
   /**
    * Queries the queue to determine the number of elements in {@code this}.
@@ -103,7 +258,8 @@ class WaitFreeWriteLongQueue
    */
   public int size()
   {
-    return size_;
+    long head = head_.get();
+    return (int)Math.min(tail_.get() - head, maximum_);
   }
 
   /**
@@ -121,20 +277,28 @@ class WaitFreeWriteLongQueue
    * {@code false} otherwise (it has been inserted
    * into a position that was vacant when the function returns)
    */
-  public synchronized boolean force(long value)
+  public boolean force(long value)
   {
-    int length = elements_.length;
-    if (size_ == length)
+    long tail = tail_.get();
+    if (hasRoom(tail))
       {
-        elements_[length - 1] = value;
+        publish(tail, value);
         return false;
       }
-    else
+    long forced = forced_.get();
+    forced_.set(forced + 1);
+    head_cache_ = head_.get();
+    boolean overwrite = tail - head_cache_ >= maximum_;
+    if (overwrite)
       {
-        elements_[size_] = value;
-        size_++;
-        return true;
+        elements_[(int)(tail - 1) & mask_] = value;
       }
+    forced_.set(forced + 2);
+    if (!overwrite)
+      {
+        publish(tail, value);
+      }
+    return overwrite;
   }
 
   /**
@@ -154,17 +318,42 @@ class WaitFreeWriteLongQueue
   public boolean write(long value)
     throws MemoryScopeException, StaticIllegalArgumentException
   {
-    int length = elements_.length;
-    if (size_ == length)
+    long tail = tail_.get();
+    if (!hasRoom(tail))
       {
         return false;
       }
-    else
+    publish(tail, value);
+    return true;
+  }
+
+  /**
+   * Determines whether the writer may store at {@code tail}, consulting
+   * the shared head only when the cached copy says the queue is full.
+   */
+  private boolean hasRoom(long tail)
+  {
+    if (tail - head_cache_ < maximum_)
       {
-        elements_[size_] = value;
-        size_++;
         return true;
       }
+    head_cache_ = head_.get();
+    return tail - head_cache_ < maximum_;
   }
 
+  /**
+   * Stores {@code value} at {@code tail}, makes it visible to readers,
+   * and wakes a parked reader.  The tail is written with a full fence,
+   * since it must be ordered before the subsequent read of waiter_.
+   */
+  private void publish(long tail, long value)
+  {
+    elements_[(int)tail & mask_] = value;
+    tail_.set(tail + 1);
+    Thread waiter = waiter_;
+    if (waiter != null)
+      {
+        LockSupport.unpark(waiter);
+      }
+  }
 }
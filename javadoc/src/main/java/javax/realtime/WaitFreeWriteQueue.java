@@ -4,6 +4,9 @@
  *-----------------------------------------------------------------------*/
 package javax.realtime;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
 import javax.realtime.control.AsynchronouslyInterruptedException;
 
 /**
@@ -61,6 +64,27 @@ import javax.realtime.control.AsynchronouslyInterruptedException;
  */
 public class WaitFreeWriteQueue<T>
 {
+  /*
+   * The queue is a ring indexed by two monotonically increasing
+   * sequences: the writer owns tail_ and the readers own head_.  The
+   * ring length is a power of two not smaller than maximum_, so that a
+   * sequence maps to its slot by masking.  Readers take an element by
+   * atomically swapping its slot with null before advancing head_; the
+   * writer relies on this when force() overwrites the newest element
+   * while a reader may be taking it.
+   */
+  private final AtomicReferenceArray<T> slots_;
+  private final int mask_;
+  private final int maximum_;
+  private final PaddedSequence head_ = new PaddedSequence(0L);
+  private final PaddedSequence tail_ = new PaddedSequence(0L);
+
+  /** Last value of head_ seen by the writer; only touched by the writer. */
+  private long head_cache_ = 0L;
+
+  /** The reader currently parked in read(), if any. */
+  private volatile Thread waiter_;
+
   /**
    * Constructs a queue in {@code memory} with an unsynchronized and
    * nonblocking {@code write()} method and a
@@ -122,6 +146,19 @@ public class WaitFreeWriteQueue<T>
            MemoryScopeException,
            InaccessibleAreaException
   {
+    checkParticipant(writer, "writer");
+    checkParticipant(reader, "reader");
+    if (maximum <= 0 || maximum > (1 << 30))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid maximum " + maximum);
+      }
+    int length = maximum == 1 ? 1 : Integer.highestOneBit(maximum - 1) << 1;
+    slots_ = memory == null ?
+      new AtomicReferenceArray<T>(length) :
+      memory.executeInArea(() -> new AtomicReferenceArray<T>(length));
+    mask_ = length - 1;
+    maximum_ = maximum;
   }
 
   /**
@@ -138,6 +175,7 @@ public class WaitFreeWriteQueue<T>
   public WaitFreeWriteQueue(int maximum, MemoryArea memory)
     throws StaticIllegalArgumentException, InaccessibleAreaException
   {
+    this(null, null, maximum, memory);
   }
 
   /**
@@ -154,13 +192,26 @@ public class WaitFreeWriteQueue<T>
   public WaitFreeWriteQueue(int maximum)
     throws StaticIllegalArgumentException
   {
+    this(null, null, maximum, null);
+  }
+
+  private static void checkParticipant(Runnable participant, String role)
+  {
+    if (participant != null &&
+        !(participant instanceof Thread) &&
+        !(participant instanceof Schedulable))
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Invalid " + role + " " + participant);
+      }
   }
 
   /**
    * Sets {@code this} to empty.
    */
-  public void clear()
+  public synchronized void clear()
   {
+    while (poll() != null) {}
   }
 
   /**
@@ -174,7 +225,7 @@ public class WaitFreeWriteQueue<T>
    */
   public boolean isEmpty()
   {
-    return true;
+    return tail_.get() == head_.get();
   }
 
   /**
@@ -188,7 +239,7 @@ public class WaitFreeWriteQueue<T>
    */
   public boolean isFull()
   {
-    return true;
+    return tail_.get() - head_.get() >= maximum_;
   }
 
   /**
@@ -209,7 +260,49 @@ public class WaitFreeWriteQueue<T>
    */
   public synchronized T read() throws InterruptedException
   {
-    return null;
+    T value = poll();
+    while (value == null)
+      {
+        waiter_ = Thread.currentThread();
+        try
+          {
+            // Recheck after publishing waiter_, so that a write racing
+            // with the assignment above is not missed.
+            value = poll();
+            if (value == null)
+              {
+                if (Thread.interrupted())
+                  {
+                    throw new InterruptedException();
+                  }
+                LockSupport.park(this);
+                value = poll();
+              }
+          }
+        finally
+          {
+            waiter_ = null;
+          }
+      }
+    return value;
+  }
+
+  /**
+   * Removes the least recently written element without blocking.  The
+   * caller must hold the lock on {@code this}.
+   *
+   * @return the element or {@code null} when {@code this} is empty.
+   */
+  private T poll()
+  {
+    long head = head_.get();
+    if (head == tail_.get())
+      {
+        return null;
+      }
+    T value = slots_.getAndSet((int)head & mask_, null);
+    head_.setOrdered(head + 1);
+    return value;
   }
 
 
@@ -225,7 +318,8 @@ public class WaitFreeWriteQueue<T>
    */
   public int size()
   {
-    return 0;
+    long head = head_.get();
+    return (int)Math.min(tail_.get() - head, maximum_);
   }
 
   /**
@@ -252,7 +346,23 @@ public class WaitFreeWriteQueue<T>
   public boolean force(T value)
     throws MemoryScopeException, StaticIllegalArgumentException
   {
-    return true;
+    checkValue(value);
+    long tail = tail_.get();
+    if (hasRoom(tail))
+      {
+        publish(tail, value);
+        return false;
+      }
+    int newest = (int)(tail - 1) & mask_;
+    T previous = slots_.get(newest);
+    if (previous != null && slots_.compareAndSet(newest, previous, value))
+      {
+        return true;
+      }
+    // A reader took the newest element in the meantime, so the queue has
+    // drained up to the tail and the slot at tail is vacant.
+    publish(tail, value);
+    return false;
   }
 
   /**
@@ -279,6 +389,51 @@ public class WaitFreeWriteQueue<T>
   public boolean write(T value)
     throws MemoryScopeException, StaticIllegalArgumentException
   {
+    checkValue(value);
+    long tail = tail_.get();
+    if (!hasRoom(tail))
+      {
+        return false;
+      }
+    publish(tail, value);
     return true;
   }
+
+  private static void checkValue(Object value)
+  {
+    if (value == null)
+      {
+        throw StaticIllegalArgumentException.get().init("value is null");
+      }
+  }
+
+  /**
+   * Determines whether the writer may store at {@code tail}, consulting
+   * the shared head only when the cached copy says the queue is full.
+   */
+  private boolean hasRoom(long tail)
+  {
+    if (tail - head_cache_ < maximum_)
+      {
+        return true;
+      }
+    head_cache_ = head_.get();
+    return tail - head_cache_ < maximum_;
+  }
+
+  /**
+   * Stores {@code value} at {@code tail}, makes it visible to readers,
+   * and wakes a parked reader.  The tail is written with a full fence,
+   * since it must be ordered before the subsequent read of waiter_.
+   */
+  private void publish(long tail, T value)
+  {
+    slots_.lazySet((int)tail & mask_, value);
+    tail_.set(tail + 1);
+    Thread waiter = waiter_;
+    if (waiter != null)
+      {
+        LockSupport.unpark(waiter);
+      }
+  }
 }
@@ -0,0 +1,736 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ReleaseRunner} for many handlers of the same priority, such
+ * as the handlers of an {@link AsyncObjectEvent} with a large fan-out.
+ * It has one worker per processor, each bound to its processor and
+ * owning a queue of releases.  A worker runs the releases of its own
+ * queue in FIFO order, and when that is empty, it steals the most
+ * recent release of another worker that it may run, so that a burst of releases is
+ * spread over all processors instead of waiting in a single queue.
+ *
+ * <p> Releases from a worker of this runner are queued with that worker,
+ * since the handlers they release often use the same data.  Other
+ * releases are distributed round robin.  A handler whose
+ * {@link SchedulingParameters} carry an {@link Affinity} at the time it
+ * is attached is only queued with and stolen by workers on processors
+ * of that affinity.
+ *
+ * <p> A handler uses this runner when it is given to its constructor;
+ * it is attached with the first release and each release counted
+ * afterwards is handed to {@link #release(ReleaseRunner.Proxy)}.
+ *
+ * <p> All workers run at the priority given on construction.  Only
+ * handlers of that priority may be attached, so the scheduling
+ * parameters of the workers are never changed for a release.
+ *
+ * @since RTSJ 2.1
+ */
+public class WorkStealingReleaseRunner extends ReleaseRunner
+{
+  private final static RealtimeThreadGroup _default_group_ =
+    new RealtimeThreadGroup("Work Stealing Release Runner");
+
+  private static final int _INITIAL_QUEUE_LENGTH_ = 16;
+
+  private final ConfigurationParameters config_;
+  private final RealtimeThreadGroup group_;
+  private final int priority_;
+
+  /** The processor of each worker. */
+  private final int[] processors_;
+
+  /**
+   * The releases of each attached handler, and of each detached handler
+   * that is still queued or running.
+   */
+  private final ConcurrentHashMap<Proxy, Releases> handlers_ =
+    new ConcurrentHashMap<>();
+
+  /** The number of attached handlers, guarded by the lock on this. */
+  private int attached_;
+
+  /** Distributes releases that do not come from a worker. */
+  private final AtomicInteger next_ = new AtomicInteger();
+
+  /** The workers, or {@code null} while no handler is attached. */
+  private volatile Worker[] workers_;
+
+  /**
+   * Creates a release runner with a worker for each given processor.
+   *
+   * @param config the parameters for the threads of all workers.
+   *
+   * @param group for the threads of all workers.
+   *
+   * @param priority the priority of all workers and of each handler that
+   *        may be attached.
+   *
+   * @param processors the processors to create workers for.  When
+   *        {@code null}, all available processors are used.
+   *
+   * @throws StaticIllegalArgumentException when {@code processors} is
+   *         empty.
+   */
+  public WorkStealingReleaseRunner(ConfigurationParameters config,
+                                   RealtimeThreadGroup group,
+                                   int priority,
+                                   BitSet processors)
+    throws StaticIllegalArgumentException
+  {
+    super(group == null ? _default_group_ : group);
+    config_ = config;
+    group_ = group == null ? _default_group_ : group;
+    priority_ = priority;
+    if (processors == null)
+      {
+        processors = TimeDispatcherGroup.availableProcessors();
+      }
+    int count = processors.cardinality();
+    if (count == 0)
+      {
+        throw StaticIllegalArgumentException.get().init("No processors");
+      }
+    processors_ = new int[count];
+    int processor = processors.nextSetBit(0);
+    for (int i = 0; i < count; i++)
+      {
+        processors_[i] = processor;
+        processor = processors.nextSetBit(processor + 1);
+      }
+  }
+
+  /**
+   * Same as
+   * {@link #WorkStealingReleaseRunner(ConfigurationParameters, RealtimeThreadGroup, int, BitSet)}
+   * with arguments {@code (config, null, priority, null)}.
+   */
+  public WorkStealingReleaseRunner(ConfigurationParameters config,
+                                   int priority)
+  {
+    this(config, null, priority, null);
+  }
+
+  @Override
+  protected RealtimeThreadGroup getRealtimeThreadGroup() { return group_; }
+
+  @Override
+  public ConfigurationParameters getConfigurationParameters()
+  {
+    return config_;
+  }
+
+  /**
+   * Gets the priority of the workers.
+   *
+   * @return the priority of all handlers run by this runner.
+   */
+  public int getPriority()
+  {
+    return priority_;
+  }
+
+  /**
+   * Queues {@code handler} with a worker it may run on and wakes a
+   * worker to run it, unless it is queued already.  When a worker runs
+   * it, the release is recorded so that the handler is queued again
+   * once that worker is done, so that a handler is never run by two
+   * workers at once.
+   *
+   * @param handler The handler to be released.
+   *
+   * @throws StaticIllegalStateException when {@code handler} is not
+   *         attached.
+   */
+  @Override
+  protected void release(Proxy handler)
+  {
+    Releases releases = handlers_.get(handler);
+    if (releases == null || !releases.attached_ || workers_ == null)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is not attached");
+      }
+    if (releases.request())
+      {
+        queue(releases);
+      }
+  }
+
+  /**
+   * Queues {@code releases} with a worker its handler may run on and
+   * wakes a worker to run it.  When the workers stop meanwhile, the
+   * release is queued with their successors, or else dropped, since
+   * its handler is then detached.
+   */
+  private void queue(Releases releases)
+  {
+    while (true)
+      {
+        Worker[] workers = workers_;
+        if (workers == null)
+          {
+            synchronized (this)
+              {
+                if (workers_ == null)
+                  {
+                    releases.state_.set(Releases.IDLE);
+                    releases.retire();
+                    return;
+                  }
+              }
+          }
+        else if (queue(releases, workers))
+          {
+            return;
+          }
+      }
+  }
+
+  /**
+   * Queues {@code releases} with one of {@code workers}.
+   *
+   * @return {@code false} when that worker has stopped.
+   */
+  private boolean queue(Releases releases, Worker[] workers)
+  {
+    int[] allowed = releases.allowed_;
+    Worker target = null;
+    Thread current = Thread.currentThread();
+    if (current instanceof Worker &&
+        ((Worker)current).getRunner() == this &&
+        mayRun(allowed, ((Worker)current).index_))
+      {
+        target = (Worker)current;
+      }
+    else if (allowed.length == 0)
+      {
+        target = workers[(next_.getAndIncrement() & Integer.MAX_VALUE) %
+                         workers.length];
+      }
+    else
+      {
+        target = workers[allowed[(next_.getAndIncrement() &
+                                  Integer.MAX_VALUE) % allowed.length]];
+      }
+    if (!target.push(releases))
+      {
+        return false;
+      }
+    if (target.waiting_)
+      {
+        LockSupport.unpark(target);
+      }
+    else
+      {
+        for (Worker worker : workers)
+          {
+            if (worker.waiting_ && mayRun(allowed, worker.index_))
+              {
+                LockSupport.unpark(worker);
+                break;
+              }
+          }
+      }
+    return true;
+  }
+
+  /**
+   * Determines whether a handler with the given allowed workers may run
+   * on the worker with index {@code index}.
+   */
+  private static boolean mayRun(int[] allowed, int index)
+  {
+    if (allowed.length == 0)
+      {
+        return true;
+      }
+    for (int worker : allowed)
+      {
+        if (worker == index)
+          {
+            return true;
+          }
+      }
+    return false;
+  }
+
+  /**
+   * Determines the workers on processors of the affinity of
+   * {@code handler}.
+   *
+   * @return the indices of those workers, or an empty array when all
+   *         workers are allowed.
+   */
+  private int[] allowed(Proxy handler)
+  {
+    SchedulingParameters scheduling = handler.getSchedulingParameters();
+    Affinity affinity = scheduling == null ? null : scheduling.getAffinity();
+    if (affinity == null)
+      {
+        return new int[0];
+      }
+    int count = 0;
+    for (int processor : processors_)
+      {
+        if (affinity.isProcessorInSet(processor))
+          {
+            count++;
+          }
+      }
+    if (count == 0)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("Affinity contains no processor of the runner");
+      }
+    if (count == processors_.length)
+      {
+        return new int[0];
+      }
+    int[] allowed = new int[count];
+    count = 0;
+    for (int i = 0; i < processors_.length; i++)
+      {
+        if (affinity.isProcessorInSet(processors_[i]))
+          {
+            allowed[count++] = i;
+          }
+      }
+    return allowed;
+  }
+
+  /**
+   * Attach a handler to this runner and starts the workers when it is
+   * the first one.
+   *
+   * @param handler to be attached.
+   *
+   * @throws StaticIllegalArgumentException When {@code handler} is
+   *         {@code null}, has a priority other than that of this runner,
+   *         or has an affinity with no processor of this runner.
+   *
+   * @throws StaticIllegalStateException when {@code handler} is already
+   *         attached.
+   */
+  @Override
+  protected synchronized void attach(Proxy handler)
+    throws StaticIllegalStateException
+  {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    SchedulingParameters scheduling = handler.getSchedulingParameters();
+    if (scheduling instanceof PriorityParameters &&
+        ((PriorityParameters)scheduling).getPriority() != priority_)
+      {
+        throw StaticIllegalArgumentException.get().
+          init("handler priority differs from runner priority");
+      }
+    Releases releases = handlers_.get(handler);
+    if (releases != null && releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is already attached");
+      }
+    int[] allowed = allowed(handler);
+    if (releases == null)
+      {
+        handlers_.put(handler, new Releases(handler, allowed));
+      }
+    else
+      {
+        // its last release may still run, so keep it from overlapping
+        releases.allowed_ = allowed;
+        releases.attached_ = true;
+      }
+    attached_++;
+    if (workers_ == null)
+      {
+        Worker[] workers = new Worker[processors_.length];
+        for (int i = 0; i < workers.length; i++)
+          {
+            workers[i] = new Worker(i);
+          }
+        workers_ = workers;
+        for (Worker worker : workers)
+          {
+            worker.start();
+          }
+      }
+  }
+
+  /**
+   * Detach a handler from this runner, so it will no longer be released.
+   * A release that is running completes, but a pending release is not
+   * run anymore.  The workers terminate when the last handler is
+   * detached.
+   *
+   * @param handler to be detached.
+   *
+   * @throws StaticIllegalArgumentException When {@code handler} is null
+   *
+   * @throws StaticIllegalStateException when {@code handler} is not
+   *         attached.
+   */
+  @Override
+  protected synchronized void detach(Proxy handler)
+    throws StaticIllegalStateException
+  {
+    if (handler == null)
+      {
+        throw StaticIllegalArgumentException.get().init("handler is null");
+      }
+    Releases releases = handlers_.get(handler);
+    if (releases == null || !releases.attached_)
+      {
+        throw StaticIllegalStateException.get().
+          init("handler is not attached");
+      }
+    releases.attached_ = false;
+    releases.retire();
+    if (--attached_ == 0)
+      {
+        Worker[] workers = workers_;
+        workers_ = null;
+        for (Worker worker : workers)
+          {
+            worker.stopped_ = true;
+            LockSupport.unpark(worker);
+          }
+      }
+  }
+
+  /**
+   * The releases of one handler.  {@code state_} is {@code IDLE} while
+   * the handler is neither queued nor run, {@code QUEUED} while it is in
+   * the queue of a worker, {@code RUNNING} while a worker runs it, and
+   * {@code REQUESTED} when a release arrived while it runs, so that the
+   * worker queues it again.  Only the worker that took the handler from
+   * a queue, by polling or stealing, changes a {@code QUEUED} state.
+   * The state of a detached handler is kept until it is idle, so that
+   * attaching the handler again reuses it.
+   */
+  private final class Releases
+  {
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int RUNNING = 2;
+    private static final int REQUESTED = 3;
+
+    private final Proxy handler_;
+    private final AtomicInteger state_ = new AtomicInteger(IDLE);
+
+    /**
+     * The workers the handler may be queued with, or an empty array when
+     * it may be queued with any of them.
+     */
+    volatile int[] allowed_;
+
+    /** Whether the handler is attached, only changed under the runner. */
+    volatile boolean attached_ = true;
+
+    Releases(Proxy handler, int[] allowed)
+    {
+      handler_ = handler;
+      allowed_ = allowed;
+    }
+
+    /**
+     * Records a release.
+     *
+     * @return {@code true} when the handler must be queued.
+     */
+    boolean request()
+    {
+      while (true)
+        {
+          int state = state_.get();
+          if (state == QUEUED || state == REQUESTED)
+            {
+              return false;
+            }
+          if (state_.compareAndSet(state, state == IDLE ? QUEUED : REQUESTED))
+            {
+              return state == IDLE;
+            }
+        }
+    }
+
+    /**
+     * Ends a run of the handler.
+     *
+     * @return {@code true} when it was released during the run and is
+     *         attached, so that it must be queued again.
+     */
+    boolean completed()
+    {
+      if (state_.compareAndSet(RUNNING, IDLE))
+        {
+          if (!attached_)
+            {
+              synchronized (WorkStealingReleaseRunner.this)
+                {
+                  retire();
+                }
+            }
+          return false;
+        }
+      synchronized (WorkStealingReleaseRunner.this)
+        {
+          if (!attached_)
+            {
+              state_.set(IDLE);
+              retire();
+              return false;
+            }
+        }
+      state_.set(QUEUED);
+      return true;
+    }
+
+    /**
+     * Forgets a detached handler once it is idle.  The caller holds the
+     * lock on the runner.
+     */
+    void retire()
+    {
+      if (!attached_ && state_.get() == IDLE)
+        {
+          handlers_.remove(handler_, this);
+        }
+    }
+  }
+
+  /**
+   * A worker with its queue of releases.  The owner takes releases from
+   * the head of the queue, other workers steal from the tail.  The queue
+   * is guarded by the lock on {@code lock_} rather than on the thread,
+   * which is used for joining.  Once the worker has stopped, its queue
+   * is closed and the releases left in it are queued elsewhere.
+   */
+  private final class Worker extends RealtimeThread
+  {
+    private final int index_;
+    private final Object lock_ = new Object();
+    private Releases[] queue_ = new Releases[_INITIAL_QUEUE_LENGTH_];
+    private int head_;
+    private int count_;
+    private boolean closed_;
+
+    /** Set before the worker looks for work a last time and parks. */
+    private volatile boolean waiting_;
+    private volatile boolean stopped_;
+
+    Worker(int index)
+    {
+      super(new PriorityParameters(priority_, affinity(processors_[index])),
+            null, null, null, config_, group_, null);
+      index_ = index;
+      setDaemon(true);
+    }
+
+    WorkStealingReleaseRunner getRunner()
+    {
+      return WorkStealingReleaseRunner.this;
+    }
+
+    /**
+     * Adds a release to the tail of the queue.
+     *
+     * @return {@code false} when the queue is closed.
+     */
+    boolean push(Releases releases)
+    {
+      synchronized (lock_)
+        {
+          if (closed_)
+            {
+              return false;
+            }
+          if (count_ == queue_.length)
+            {
+              Releases[] grown = new Releases[count_ << 1];
+              for (int i = 0; i < count_; i++)
+                {
+                  grown[i] = queue_[(head_ + i) & (queue_.length - 1)];
+                }
+              queue_ = grown;
+              head_ = 0;
+            }
+          queue_[(head_ + count_++) & (queue_.length - 1)] = releases;
+          return true;
+        }
+    }
+
+    Releases poll()
+    {
+      synchronized (lock_)
+        {
+          if (count_ == 0)
+            {
+              return null;
+            }
+          Releases releases = queue_[head_];
+          queue_[head_] = null;
+          head_ = (head_ + 1) & (queue_.length - 1);
+          count_--;
+          return releases;
+        }
+    }
+
+    /**
+     * Closes the queue and queues the releases left in it with the
+     * workers that replace this one, if any.
+     */
+    void close()
+    {
+      synchronized (lock_)
+        {
+          closed_ = true;
+        }
+      Releases releases;
+      while ((releases = poll()) != null)
+        {
+          queue(releases);
+        }
+    }
+
+    /**
+     * Removes the most recent release that {@code thief} may run.  The
+     * releases after it, which the thief may not run, move up one place,
+     * so the queue keeps its order.
+     */
+    Releases steal(Worker thief)
+    {
+      synchronized (lock_)
+        {
+          int mask = queue_.length - 1;
+          for (int i = count_ - 1; i >= 0; i--)
+            {
+              int slot = (head_ + i) & mask;
+              Releases releases = queue_[slot];
+              if (mayRun(releases.allowed_, thief.index_))
+                {
+                  for (int j = i + 1; j < count_; j++)
+                    {
+                      queue_[(head_ + j - 1) & mask] = queue_[(head_ + j) & mask];
+                    }
+                  queue_[(head_ + count_ - 1) & mask] = null;
+                  count_--;
+                  return releases;
+                }
+            }
+          return null;
+        }
+    }
+
+    /**
+     * Takes a release of this worker, or else steals one, starting with
+     * the next worker so that thieves spread over their victims.  The
+     * handler of the release taken is then running.
+     */
+    private Releases next(Worker[] workers)
+    {
+      Releases releases = poll();
+      for (int i = 1; releases == null && i < workers.length; i++)
+        {
+          releases = workers[(index_ + i) % workers.length].steal(this);
+        }
+      if (releases != null)
+        {
+          releases.state_.set(Releases.RUNNING);
+        }
+      return releases;
+    }
+
+    /**
+     * Runs releases until the worker is stopped.  The handlers report
+     * exceptions themselves.  An error thrown by a handler ends the
+     * worker; it is then replaced by a new worker with the same index,
+     * which takes over its queue.
+     */
+    @Override
+    public void run()
+    {
+      Worker[] workers = workers_;
+      Releases running = null;
+      try
+        {
+          while (!stopped_)
+            {
+              Releases releases = next(workers);
+              if (releases == null)
+                {
+                  waiting_ = true;
+                  releases = next(workers);
+                  if (releases == null && !stopped_)
+                    {
+                      LockSupport.park(this);
+                    }
+                  waiting_ = false;
+                  if (releases == null)
+                    {
+                      continue;
+                    }
+                }
+              if (releases.attached_)
+                {
+                  running = releases;
+                  releases.handler_.run();
+                  running = null;
+                }
+              if (releases.completed())
+                {
+                  queue(releases);
+                }
+            }
+        }
+      finally
+        {
+          if (running != null)
+            {
+              replace(workers);
+              if (running.completed())
+                {
+                  queue(running);
+                }
+            }
+          close();
+        }
+    }
+
+    /**
+     * Starts a worker to take the place of this one in {@code workers},
+     * unless the workers are stopping.
+     */
+    private void replace(Worker[] workers)
+    {
+      synchronized (WorkStealingReleaseRunner.this)
+        {
+          if (workers_ == workers && !stopped_)
+            {
+              Worker worker = new Worker(index_);
+              workers[index_] = worker;
+              worker.start();
+            }
+        }
+    }
+  }
+
+  private static Affinity affinity(int processor)
+  {
+    BitSet single = new BitSet();
+    single.set(processor);
+    return Affinity.generate(single);
+  }
+}
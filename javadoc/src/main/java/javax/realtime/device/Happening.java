@@ -332,6 +332,7 @@ public class Happening
    */
   public void addHandler(AsyncBaseEventHandler handler)
   {
+    super.addHandler(handler);
   }
 
   /**
@@ -339,6 +340,7 @@ public class Happening
    */
   public void setHandler(AsyncBaseEventHandler handler)
   {
+    super.setHandler(handler);
   }
 
   /**
@@ -346,5 +348,6 @@ public class Happening
    */
   public void removeHandler(AsyncBaseEventHandler handler)
   {
+    super.removeHandler(handler);
   }
 }
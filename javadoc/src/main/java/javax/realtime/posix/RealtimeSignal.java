@@ -347,6 +347,7 @@ public final class RealtimeSignal
    */
   public void addHandler(AsyncBaseEventHandler handler)
   {
+    super.addHandler(handler);
   }
 
   /**
@@ -354,6 +355,7 @@ public final class RealtimeSignal
    */
   public void setHandler(AsyncBaseEventHandler handler)
   {
+    super.setHandler(handler);
   }
 
   /**
@@ -361,5 +363,6 @@ public final class RealtimeSignal
    */
   public void removeHandler(AsyncBaseEventHandler handler)
   {
+    super.removeHandler(handler);
   }
 }
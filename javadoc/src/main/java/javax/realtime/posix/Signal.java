@@ -546,6 +546,7 @@ public final class Signal
    */
   public void addHandler(AsyncBaseEventHandler handler)
   {
+    super.addHandler(handler);
   }
 
   /**
@@ -553,6 +554,7 @@ public final class Signal
    */
   public void setHandler(AsyncBaseEventHandler handler)
   {
+    super.setHandler(handler);
   }
 
   /**
@@ -560,5 +562,6 @@ public final class Signal
    */
   public void removeHandler(AsyncBaseEventHandler handler)
   {
+    super.removeHandler(handler);
   }
 }
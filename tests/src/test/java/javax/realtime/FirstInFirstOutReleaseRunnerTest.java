@@ -0,0 +1,213 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the pool of the default release runner runs pending
+ * releases by priority, in FIFO order within a priority, and keeps its
+ * size when a handler throws an error.
+ */
+class FirstInFirstOutReleaseRunnerTest
+{
+  @BeforeAll
+  static void configure()
+  {
+    TestSupport.configure();
+  }
+
+  /**
+   * A runner with a single worker, which runs on a plain thread.
+   */
+  private static final class SingleWorkerRunner
+    extends FirstInFirstOutReleaseRunner
+  {
+    SingleWorkerRunner()
+    {
+      super(null, null, (handlers, priorities) -> 1);
+    }
+
+    @Override
+    void startWorker(Thread worker)
+    {
+      Thread thread = new Thread(worker::run, "release runner");
+      thread.setDaemon(true);
+      thread.setUncaughtExceptionHandler((t, e) -> {});
+      thread.start();
+    }
+  }
+
+  /**
+   * A handler that records its runs.
+   */
+  private static class Recorder implements ReleaseRunner.Proxy
+  {
+    private final String name_;
+    private final SchedulingParameters scheduling_;
+    private final List<String> runs_;
+
+    Recorder(String name, int priority, List<String> runs)
+    {
+      name_ = name;
+      scheduling_ = new TestSupport.Priority(priority);
+      runs_ = runs;
+    }
+
+    @Override
+    public SchedulingParameters getSchedulingParameters()
+    {
+      return scheduling_;
+    }
+
+    @Override
+    public AbsoluteTime getReleaseTime()
+    {
+      return null;
+    }
+
+    @Override
+    public AsyncBaseEventHandler getHandler()
+    {
+      return null;
+    }
+
+    @Override
+    public void run()
+    {
+      synchronized (runs_)
+        {
+          runs_.add(name_);
+          runs_.notifyAll();
+        }
+    }
+  }
+
+  private static void await(List<String> runs, int count)
+    throws InterruptedException
+  {
+    long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    synchronized (runs)
+      {
+        while (runs.size() < count && end - System.nanoTime() > 0)
+          {
+            runs.wait(100);
+          }
+      }
+  }
+
+  @Test
+  void releasesRunByPriorityThenInOrder() throws InterruptedException
+  {
+    List<String> runs = new ArrayList<>();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    Recorder blocker = new Recorder("blocker", 1, runs)
+      {
+        @Override
+        public void run()
+        {
+          started.countDown();
+          try
+            {
+              proceed.await();
+            }
+          catch (InterruptedException e)
+            {
+              throw new AssertionError(e);
+            }
+        }
+      };
+    Recorder low = new Recorder("low", 5, runs);
+    Recorder mid1 = new Recorder("mid1", 10, runs);
+    Recorder mid2 = new Recorder("mid2", 10, runs);
+    Recorder high = new Recorder("high", 20, runs);
+    SingleWorkerRunner runner = new SingleWorkerRunner();
+    for (Recorder recorder : Arrays.asList(blocker, low, mid1, mid2, high))
+      {
+        runner.attach(recorder);
+      }
+    runner.release(blocker);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    // queued while the only worker is busy, lowest priority first
+    runner.release(low);
+    runner.release(mid1);
+    runner.release(mid2);
+    runner.release(high);
+    // a second release of a queued handler is merged into the first
+    runner.release(mid1);
+    proceed.countDown();
+    await(runs, 4);
+    Thread.sleep(50);
+    synchronized (runs)
+      {
+        assertEquals(Arrays.asList("high", "mid1", "mid2", "low"), runs);
+      }
+  }
+
+  @Test
+  void releaseDuringRunIsRunAgain() throws InterruptedException
+  {
+    List<String> runs = new ArrayList<>();
+    SingleWorkerRunner runner = new SingleWorkerRunner();
+    Recorder[] self = new Recorder[1];
+    self[0] = new Recorder("again", 3, runs)
+      {
+        private int count_;
+
+        @Override
+        public void run()
+        {
+          super.run();
+          if (count_++ == 0)
+            {
+              runner.release(self[0]);
+            }
+        }
+      };
+    runner.attach(self[0]);
+    runner.release(self[0]);
+    await(runs, 2);
+    assertEquals(Arrays.asList("again", "again"), runs);
+  }
+
+  @Test
+  void errorInHandlerKeepsThePool() throws InterruptedException
+  {
+    List<String> runs = new ArrayList<>();
+    Recorder failing = new Recorder("failing", 7, runs)
+      {
+        @Override
+        public void run()
+        {
+          super.run();
+          throw new AssertionError("thrown by the handler");
+        }
+      };
+    Recorder next = new Recorder("next", 7, runs);
+    SingleWorkerRunner runner = new SingleWorkerRunner();
+    runner.attach(failing);
+    runner.attach(next);
+    runner.release(failing);
+    await(runs, 1);
+    runner.release(next);
+    runner.release(failing);
+    await(runs, 3);
+    synchronized (runs)
+      {
+        assertEquals(Arrays.asList("failing", "next", "failing"), runs);
+      }
+  }
+}
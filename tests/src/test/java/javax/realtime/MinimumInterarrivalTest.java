@@ -0,0 +1,144 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the handling of releases that arrive within the minimum
+ * interarrival time of sporadic release parameters, for each
+ * {@link MinimumInterarrivalPolicy}.
+ */
+class MinimumInterarrivalTest
+{
+  /** Long enough that two consecutive releases always violate it. */
+  private static final long MIT = 300L;
+
+  @BeforeAll
+  static void configure()
+  {
+    // the default dispatcher counts the saved releases
+    TestSupport.dispatcher();
+  }
+
+  private static SporadicParameters sporadic(MinimumInterarrivalPolicy policy)
+  {
+    return new SporadicParameters(new RelativeTime(MIT, 0)).
+      setMinimumInterarrivalPolicy(policy);
+  }
+
+  /*
+   * The reference handlers do not keep their logic, so the tests
+   * override the handling methods instead.
+   */
+
+  private static AsyncEventHandler handler(MinimumInterarrivalPolicy policy,
+                                           ReleaseRunner runner,
+                                           AtomicInteger runs)
+  {
+    return new AsyncEventHandler(null, sporadic(policy), null, null, null,
+                                 runner, null)
+      {
+        @Override
+        public void handleAsyncEvent()
+        {
+          runs.incrementAndGet();
+        }
+      };
+  }
+
+  @Test
+  void exceptRejectsTheViolatingRelease()
+  {
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    AtomicInteger runs = new AtomicInteger();
+    AsyncEventHandler handler =
+      handler(MinimumInterarrivalPolicy.EXCEPT, runner, runs);
+    handler.release();
+    assertThrows(MITViolationException.class, handler::release);
+    assertEquals(1, handler.getPendingFireCount());
+    runner.runAll();
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void ignoreDropsTheViolatingRelease()
+  {
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    AtomicInteger runs = new AtomicInteger();
+    AsyncEventHandler handler =
+      handler(MinimumInterarrivalPolicy.IGNORE, runner, runs);
+    handler.release();
+    handler.release();
+    handler.release();
+    assertEquals(1, handler.getPendingFireCount());
+    assertEquals(1, runner.released().size());
+    runner.runAll();
+    assertEquals(1, runs.get());
+    assertEquals(0, handler.getPendingFireCount());
+  }
+
+  @Test
+  void replaceKeepsTheNewestPayload()
+  {
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    List<Long> payloads = new ArrayList<>();
+    AsyncLongEventHandler handler =
+      new AsyncLongEventHandler(null,
+                                sporadic(MinimumInterarrivalPolicy.REPLACE),
+                                null, null, null, runner, null)
+      {
+        @Override
+        public void handleAsyncEvent(long payload)
+        {
+          payloads.add(payload);
+        }
+      };
+    handler.release(1L);
+    handler.release(2L);
+    handler.release(3L);
+    assertEquals(1, handler.getPendingFireCount());
+    runner.runAll();
+    assertEquals(Arrays.asList(3L), payloads);
+
+    // without a pending release, there is nothing to replace
+    handler.release(4L);
+    assertEquals(0, handler.getPendingFireCount());
+  }
+
+  @Test
+  void saveDelaysTheViolatingRelease() throws InterruptedException
+  {
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    AtomicInteger runs = new AtomicInteger();
+    AsyncEventHandler handler =
+      handler(MinimumInterarrivalPolicy.SAVE, runner, runs);
+    long before = System.nanoTime();
+    handler.release();
+    handler.release();
+    handler.release();
+    assertEquals(1, handler.getPendingFireCount());
+    assertEquals(1, runner.released().size());
+    assertTrue(runner.await(3, 10 * MIT));
+    List<Long> times = runner.times();
+    long mit = MIT * 1_000_000L;
+    // each saved release follows the previous one by the interval
+    assertTrue(times.get(1) - (before + mit) >= 0, "second release early");
+    assertTrue(times.get(2) - (before + 2 * mit) >= 0, "third release early");
+    assertEquals(3, handler.getPendingFireCount());
+    runner.runAll();
+    assertEquals(3, runs.get());
+  }
+}
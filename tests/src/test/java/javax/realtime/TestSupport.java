@@ -0,0 +1,197 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shared by the tests.  The reference classes leave the memory
+ * areas and the starting of realtime threads to the virtual machine, so
+ * the tests install a default configuration that does not need the heap
+ * area and run the dispatching loops on plain threads.
+ */
+final class TestSupport
+{
+  private static TimeDispatcher _dispatcher_;
+
+  private TestSupport()
+  {
+  }
+
+  /**
+   * Installs a default configuration, which the static throwables need.
+   */
+  static synchronized void configure()
+  {
+    ConfigurationParameters.
+      setDefault(new ConfigurationParameters(64, 8, 32, 32, 16, null));
+  }
+
+  /**
+   * Gets a time dispatcher whose timer wheel runs on a plain daemon
+   * thread, and makes it the default dispatcher.
+   *
+   * @return the dispatcher.
+   */
+  static synchronized TimeDispatcher dispatcher()
+  {
+    if (_dispatcher_ == null)
+      {
+        configure();
+        TimeDispatcher dispatcher =
+          new TimeDispatcher(new PriorityParameters(0));
+        Thread thread = new Thread(wheel(dispatcher), "timer wheel");
+        thread.setDaemon(true);
+        thread.start();
+        TimeDispatcher.setDefaultDispatcher(dispatcher);
+        _dispatcher_ = dispatcher;
+      }
+    return _dispatcher_;
+  }
+
+  /**
+   * Gets the timer wheel of {@code dispatcher}.
+   */
+  static TimerWheel wheel(TimeDispatcher dispatcher)
+  {
+    try
+      {
+        Field field = TimeDispatcher.class.getDeclaredField("wheel_");
+        field.setAccessible(true);
+        return (TimerWheel)field.get(dispatcher);
+      }
+    catch (ReflectiveOperationException e)
+      {
+        throw new AssertionError(e);
+      }
+  }
+
+  /**
+   * Priority parameters whose priority is kept by the test, since the
+   * reference priority parameters do not keep theirs.
+   */
+  static final class Priority extends PriorityParameters
+  {
+    private final int priority_;
+
+    Priority(int priority)
+    {
+      super(priority);
+      priority_ = priority;
+    }
+
+    @Override
+    public int getPriority()
+    {
+      return priority_;
+    }
+  }
+
+  /**
+   * A runner that records its handlers and the times of their releases
+   * instead of running them.  A test runs a release by calling
+   * {@link #runAll()}.
+   */
+  static final class RecordingRunner extends ReleaseRunner
+  {
+    private final List<Proxy> attached_ = new ArrayList<>();
+    private final List<Proxy> released_ = new ArrayList<>();
+    private final List<Long> times_ = new ArrayList<>();
+
+    RecordingRunner()
+    {
+      super(null);
+    }
+
+    @Override
+    protected RealtimeThreadGroup getRealtimeThreadGroup()
+    {
+      return null;
+    }
+
+    @Override
+    public ConfigurationParameters getConfigurationParameters()
+    {
+      return null;
+    }
+
+    @Override
+    protected synchronized void release(Proxy handler)
+    {
+      released_.add(handler);
+      times_.add(System.nanoTime());
+      notifyAll();
+    }
+
+    @Override
+    protected synchronized void attach(Proxy handler)
+    {
+      attached_.add(handler);
+    }
+
+    @Override
+    protected synchronized void detach(Proxy handler)
+    {
+      attached_.remove(handler);
+    }
+
+    synchronized List<Proxy> attached()
+    {
+      return new ArrayList<>(attached_);
+    }
+
+    synchronized List<Proxy> released()
+    {
+      return new ArrayList<>(released_);
+    }
+
+    synchronized List<Long> times()
+    {
+      return new ArrayList<>(times_);
+    }
+
+    /**
+     * Waits until at least {@code count} releases were recorded.
+     *
+     * @return whether they were recorded within {@code millis}.
+     */
+    synchronized boolean await(int count, long millis)
+      throws InterruptedException
+    {
+      long end = System.nanoTime() + millis * 1_000_000L;
+      while (released_.size() < count)
+        {
+          long left = (end - System.nanoTime()) / 1_000_000L;
+          if (left <= 0)
+            {
+              return false;
+            }
+          wait(left);
+        }
+      return true;
+    }
+
+    /**
+     * Runs each recorded release once, in the order they were recorded,
+     * and forgets them.
+     */
+    void runAll()
+    {
+      List<Proxy> released;
+      synchronized (this)
+        {
+          released = new ArrayList<>(released_);
+          released_.clear();
+          times_.clear();
+        }
+      for (Proxy proxy : released)
+        {
+          proxy.run();
+        }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that timers in the higher levels of the timer wheel cascade
+ * down and fire on time, and that the slack of a timer coalesces its
+ * fire time with those of its neighbours.
+ */
+class TimerWheelTest
+{
+  /** How late a timer may fire on a loaded machine. */
+  private static final long LATENESS = 150_000_000L;
+
+  private static TimeDispatcher dispatcher;
+
+  @BeforeAll
+  static void configure()
+  {
+    dispatcher = TestSupport.dispatcher();
+  }
+
+  private static AsyncEventHandler handler(ReleaseRunner runner)
+  {
+    return new AsyncEventHandler(null, null, null, null, null, runner, null);
+  }
+
+  @Test
+  void timersCascadeAndFireInOrder() throws InterruptedException
+  {
+    // level 0 spans 2^25 ns, about 34 ms, and a level 1 slot as much;
+    // level 1 spans about 2.1 s, so the last one starts in level 2
+    long[] delays = { 5L, 80L, 400L, 2_500L };
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    AsyncEventHandler[] handlers = new AsyncEventHandler[delays.length];
+    long[] fires = new long[delays.length];
+    // start them latest first, so the order of the releases is the
+    // order of their times, not of their starts
+    for (int i = delays.length - 1; i >= 0; i--)
+      {
+        handlers[i] = handler(runner);
+        OneShotTimer timer =
+          new OneShotTimer(new RelativeTime(delays[i], 0), handlers[i],
+                           dispatcher);
+        long before = System.nanoTime();
+        timer.start();
+        long after = System.nanoTime();
+        fires[i] = timer.fire_nanos_;
+        assertTrue(fires[i] - before >= delays[i] * 1_000_000L);
+        assertTrue(fires[i] - after <= delays[i] * 1_000_000L);
+      }
+    assertTrue(runner.await(delays.length, 10_000L));
+    List<ReleaseRunner.Proxy> released = runner.released();
+    List<Long> times = runner.times();
+    assertEquals(delays.length, released.size());
+    for (int i = 0; i < delays.length; i++)
+      {
+        assertSame(handlers[i], released.get(i).getHandler());
+        long late = times.get(i) - fires[i];
+        assertTrue(late >= 0, "fired " + -late + " ns early");
+        assertTrue(late <= LATENESS, "fired " + late + " ns late");
+      }
+  }
+
+  @Test
+  void slackCoalescesFireTimes() throws InterruptedException
+  {
+    final int count = 8;
+    final long delay = 200_000_000L;
+    final long slack = 10_000_000L;
+    final long grain = Long.highestOneBit(slack);
+    TestSupport.RecordingRunner runner = new TestSupport.RecordingRunner();
+    Set<Long> distinct = new HashSet<>();
+    long earliest = Long.MAX_VALUE;
+    for (int i = 0; i < count; i++)
+      {
+        OneShotTimer timer =
+          new OneShotTimer(new RelativeTime(0, (int)delay), handler(runner),
+                           dispatcher);
+        timer.setSlack(new RelativeTime(0, (int)slack));
+        long before = System.nanoTime();
+        timer.start();
+        long after = System.nanoTime();
+        long fire = timer.fire_nanos_;
+        assertEquals(0L, fire & (grain - 1), "not on the slack grain");
+        assertTrue(fire - (before + delay) >= 0, "fires early");
+        assertTrue(fire - (after + delay + slack) <= 0, "exceeds its slack");
+        distinct.add(fire);
+        earliest = Math.min(earliest, fire);
+      }
+    // timers started within a grain of each other share one fire time,
+    // unless their starts straddle the end of a grain
+    assertTrue(distinct.size() <= 2, "fire times " + distinct);
+    assertTrue(runner.await(count, 10_000L));
+    for (long time : runner.times())
+      {
+        assertTrue(time - earliest >= 0);
+      }
+  }
+
+  @Test
+  void timerWithoutSlackKeepsItsTime()
+  {
+    final long delay = 300_000_000L;
+    OneShotTimer timer =
+      new OneShotTimer(new RelativeTime(0, (int)delay),
+                       handler(new TestSupport.RecordingRunner()),
+                       dispatcher);
+    long before = System.nanoTime();
+    timer.start();
+    long after = System.nanoTime();
+    long fire = timer.fire_nanos_;
+    timer.stop();
+    assertTrue(fire - (before + delay) >= 0);
+    assertTrue(fire - (after + delay) <= 0);
+  }
+}
@@ -0,0 +1,199 @@
+/*-----------------------------------------------------------------------*\
+ * Copyright 2024, aicas GmbH; all rights reserved.
+ * This header, including copyright notice, may not be altered or removed.
+ *-----------------------------------------------------------------------*/
+package javax.realtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the wait-free queues keep their order and capacity when
+ * their indices wrap around the ring, and the overwriting of the newest
+ * element by {@code force()}.
+ */
+class WaitFreeQueueTest
+{
+  /** Not a power of two, so the ring is longer than the capacity. */
+  private static final int CAPACITY = 5;
+
+  private static final int ROUNDS = 1000;
+
+  @BeforeAll
+  static void configure()
+  {
+    TestSupport.configure();
+  }
+
+  @Test
+  void writeQueueWrapsAround() throws InterruptedException
+  {
+    WaitFreeWriteQueue<Integer> queue = new WaitFreeWriteQueue<>(CAPACITY);
+    int written = 0;
+    int read = 0;
+    for (int round = 0; round < ROUNDS; round++)
+      {
+        // fill to capacity, then drain a varying part, so that the head
+        // and the tail pass the end of the ring at every offset
+        while (queue.write(written))
+          {
+            written++;
+          }
+        assertTrue(queue.isFull());
+        assertEquals(CAPACITY, queue.size());
+        int drain = 1 + round % CAPACITY;
+        for (int i = 0; i < drain; i++)
+          {
+            assertEquals(read++, (int)queue.read());
+          }
+        assertEquals(CAPACITY - drain, queue.size());
+      }
+    while (!queue.isEmpty())
+      {
+        assertEquals(read++, (int)queue.read());
+      }
+    assertEquals(written, read);
+  }
+
+  @Test
+  void writeQueueForceOverwritesNewest() throws InterruptedException
+  {
+    WaitFreeWriteQueue<Integer> queue = new WaitFreeWriteQueue<>(CAPACITY);
+    for (int round = 0; round < ROUNDS; round++)
+      {
+        int base = round * 100;
+        assertFalse(queue.force(base));
+        for (int i = 1; i < CAPACITY; i++)
+          {
+            assertTrue(queue.write(base + i));
+          }
+        assertFalse(queue.write(base + 50));
+        assertTrue(queue.force(base + 60));
+        assertTrue(queue.force(base + 70));
+        assertEquals(CAPACITY, queue.size());
+        for (int i = 0; i < CAPACITY - 1; i++)
+          {
+            assertEquals(base + i, (int)queue.read());
+          }
+        assertEquals(base + 70, (int)queue.read());
+        assertTrue(queue.isEmpty());
+      }
+  }
+
+  @Test
+  void longWriteQueueWrapsAround() throws InterruptedException
+  {
+    WaitFreeWriteLongQueue queue = new WaitFreeWriteLongQueue(CAPACITY);
+    long written = 0;
+    long read = 0;
+    for (int round = 0; round < ROUNDS; round++)
+      {
+        while (queue.write(written))
+          {
+            written++;
+          }
+        assertEquals(CAPACITY, queue.size());
+        int drain = 1 + round % CAPACITY;
+        for (int i = 0; i < drain; i++)
+          {
+            assertEquals(read++, queue.read());
+          }
+      }
+    while (!queue.isEmpty())
+      {
+        assertEquals(read++, queue.read());
+      }
+    assertEquals(written, read);
+  }
+
+  @Test
+  void longWriteQueueForceOverwritesNewest() throws InterruptedException
+  {
+    WaitFreeWriteLongQueue queue = new WaitFreeWriteLongQueue(CAPACITY);
+    for (int round = 0; round < ROUNDS; round++)
+      {
+        long base = round * 100L;
+        assertFalse(queue.force(base));
+        for (int i = 1; i < CAPACITY; i++)
+          {
+            assertTrue(queue.write(base + i));
+          }
+        assertTrue(queue.force(base + 60));
+        assertTrue(queue.force(base + 70));
+        for (int i = 0; i < CAPACITY - 1; i++)
+          {
+            assertEquals(base + i, queue.read());
+          }
+        assertEquals(base + 70, queue.read());
+        assertTrue(queue.isEmpty());
+      }
+  }
+
+  @Test
+  void longWriteQueueForceKeepsOrderWithConcurrentReader() throws Exception
+  {
+    final int count = 200_000;
+    WaitFreeWriteLongQueue queue = new WaitFreeWriteLongQueue(CAPACITY);
+    long[] last = { -1L };
+    Thread reader = new Thread(() ->
+      {
+        try
+          {
+            long value;
+            do
+              {
+                value = queue.read();
+                // overwritten elements are lost, but never reordered
+                assertTrue(value > last[0], value + " after " + last[0]);
+                last[0] = value;
+              }
+            while (value != count - 1);
+          }
+        catch (InterruptedException e)
+          {
+            throw new AssertionError(e);
+          }
+      });
+    reader.start();
+    for (long i = 0; i < count; i++)
+      {
+        queue.force(i);
+      }
+    reader.join(10_000L);
+    assertFalse(reader.isAlive());
+    assertEquals(count - 1, last[0]);
+  }
+
+  @Test
+  void readQueueWrapsAround() throws InterruptedException
+  {
+    WaitFreeReadQueue<Integer> queue = new WaitFreeReadQueue<>(CAPACITY, false);
+    int written = 0;
+    int read = 0;
+    for (int round = 0; round < ROUNDS; round++)
+      {
+        while (!queue.isFull())
+          {
+            queue.write(written++);
+          }
+        assertEquals(CAPACITY, queue.size());
+        int drain = 1 + round % CAPACITY;
+        for (int i = 0; i < drain; i++)
+          {
+            assertEquals(read++, (int)queue.read());
+          }
+      }
+    Integer value;
+    while ((value = queue.read()) != null)
+      {
+        assertEquals(read++, (int)value);
+      }
+    assertEquals(written, read);
+    assertNull(queue.read());
+  }
+}